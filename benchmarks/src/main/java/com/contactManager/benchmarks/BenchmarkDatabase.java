@@ -0,0 +1,127 @@
+package com.contactManager.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.contactManager.SmartContactManagerApplication;
+import com.contactManager.entities.User;
+import com.contactManager.repositories.UserRepository;
+
+/**
+ * The real application context on an in-memory H2 database, seeded with one
+ * owner holding {@link #contacts} contacts.
+ *
+ * Started once per trial. The command-line style properties below take
+ * precedence over {@code application.properties}, so nothing reaches Oracle
+ * or the mail server.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+	static final String OWNER_EMAIL = "bench@example.com";
+
+	static final String OWNER_PASSWORD = "bench-password";
+
+	private static final int SEED_BATCH = 1000;
+
+	private static final AtomicInteger TRIALS = new AtomicInteger();
+
+	@Param({ "1000", "100000" })
+	public int contacts;
+
+	ConfigurableApplicationContext context;
+
+	int ownerId;
+
+	@Setup(Level.Trial)
+	public void start() {
+		start(new SpringApplication(SmartContactManagerApplication.class));
+	}
+
+	/**
+	 * Starts {@code application} on the benchmark database, {@code extraArgs}
+	 * in the same {@code --name=value} form replace the defaults below.
+	 */
+	void start(SpringApplication application, String... extraArgs) {
+
+		List<String> defaults = List.of(
+				// a fresh database per trial, the schema comes from the h2 migrations
+				"--spring.datasource.url=jdbc:h2:mem:bench" + TRIALS.incrementAndGet() + ";DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"--spring.jpa.show-sql=false",
+				"--server.port=0",
+				"--management.server.port=0",
+				"--project.image=target/bench-images",
+				"--logging.file.name=target/benchmark.log",
+				"--logging.level.root=WARN",
+				"--logging.level.com.contactManager=WARN");
+
+		// keyed by name, a repeated option would be read as "first,second"
+		Map<String, String> args = new LinkedHashMap<>();
+
+		for (String arg : defaults) {
+			args.put(arg.substring(0, arg.indexOf('=')), arg);
+		}
+
+		for (String arg : extraArgs) {
+			args.put(arg.substring(0, arg.indexOf('=')), arg);
+		}
+
+		context = application.run(args.values().toArray(new String[0]));
+
+		seed();
+	}
+
+	private void seed() {
+
+		User owner = new User();
+		owner.setName("Bench Owner");
+		owner.setEmail(OWNER_EMAIL);
+		owner.setPassword(new BCryptPasswordEncoder().encode(OWNER_PASSWORD));
+		owner.setRole("ROLE_USER");
+		owner.setEnabled(true);
+
+		ownerId = bean(UserRepository.class).save(owner).getId();
+
+		JdbcTemplate jdbc = bean(JdbcTemplate.class);
+		List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+
+		for (int i = 1; i <= contacts; i++) {
+
+			rows.add(new Object[] { "Name" + i, "Surname" + i, "Work " + (i % 100), "name" + i + "@example.com",
+					"+1 555 " + i, "contact.png", "Description of contact " + i, ownerId });
+
+			if (rows.size() == SEED_BATCH || i == contacts) {
+				jdbc.batchUpdate("insert into contact (contact_id, name, second_name, work, email, phone, image, "
+						+ "description, user_id) values (next value for contact_seq, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+				rows.clear();
+			}
+		}
+	}
+
+	<T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+}
@@ -0,0 +1,89 @@
+package com.contactManager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.entities.User;
+import com.contactManager.repositories.UserRepository;
+import com.contactManager.services.ContactServiceImpl;
+
+/**
+ * Adding one contact.
+ *
+ * {@code legacyCascadeInsert} replays what {@code UserController.processForm}
+ * used to do: load the owner, add to {@code User.contacts} (initializing the
+ * whole collection) and save the user so the insert cascades. It is kept as
+ * the baseline for {@code addContact}, the path the controller uses now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactInsertBenchmarks {
+
+	private UserRepository userRepository;
+
+	private ContactServiceImpl contactService;
+
+	private TransactionTemplate transaction;
+
+	private int ownerId;
+
+	private int sequence;
+
+	@Setup(Level.Trial)
+	public void setUp(BenchmarkDatabase database) {
+		userRepository = database.bean(UserRepository.class);
+		contactService = database.bean(ContactServiceImpl.class);
+		transaction = database.bean(TransactionTemplate.class);
+		ownerId = database.ownerId;
+	}
+
+	@Benchmark
+	public User legacyCascadeInsert() {
+
+		Contact contact = newContact();
+
+		return transaction.execute(status -> {
+			User user = userRepository.findById(ownerId).orElseThrow();
+			user.getContacts().add(contact);
+			contact.setUser(user);
+			return userRepository.save(user);
+		});
+	}
+
+	@Benchmark
+	public Contact addContact() {
+		return contactService.addContact(ownerId, newContact());
+	}
+
+	private Contact newContact() {
+
+		int i = ++sequence;
+
+		Contact contact = new Contact();
+		contact.setName("Added" + i);
+		contact.setSecondName("Contact");
+		contact.setWork("Benchmarks");
+		contact.setEmail("added" + i + "@example.com");
+		contact.setPhone("+1 555 0" + i);
+		contact.setImage("contact.png");
+		contact.setDescription("Inserted by the benchmark");
+		return contact;
+	}
+}
@@ -0,0 +1,97 @@
+package com.contactManager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.contactManager.dto.ContactSummary;
+import com.contactManager.entities.Contact;
+import com.contactManager.entities.User;
+import com.contactManager.repositories.ContactRepository;
+import com.contactManager.repositories.UserRepository;
+import com.contactManager.services.ContactServiceImpl;
+
+/**
+ * Contact list paging and name search, the queries behind
+ * {@code /user/show_contacts} and {@code /user/search}.
+ *
+ * Each call runs in its own transaction, like a request under open session in
+ * view, so the persistence context does not carry entities between calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactQueryBenchmarks {
+
+	private static final int PAGE_SIZE = 6;
+
+	private ContactRepository contactRepository;
+
+	private ContactServiceImpl contactService;
+
+	private TransactionTemplate transaction;
+
+	private int ownerId;
+
+	private User owner;
+
+	private int deepPage;
+
+	private int deepAfterId;
+
+	@Setup(Level.Trial)
+	public void setUp(BenchmarkDatabase database) {
+
+		contactRepository = database.bean(ContactRepository.class);
+		contactService = database.bean(ContactServiceImpl.class);
+		transaction = database.bean(TransactionTemplate.class);
+		ownerId = database.ownerId;
+		owner = database.bean(UserRepository.class).findById(ownerId).orElseThrow();
+
+		deepPage = (database.contacts - 1) / PAGE_SIZE;
+
+		// cursor of the last page, as the pager would hand it over
+		deepAfterId = transaction.execute(status -> contactRepository
+				.findContactByUser(ownerId, PageRequest.of(deepPage - 1, PAGE_SIZE)).getContent()
+				.get(PAGE_SIZE - 1).getContact_id());
+	}
+
+	@Benchmark
+	public Page<Contact> findContactByUserFirstPage() {
+		return transaction.execute(status -> contactRepository.findContactByUser(ownerId, PageRequest.of(0, PAGE_SIZE)));
+	}
+
+	@Benchmark
+	public Page<Contact> findContactByUserDeepPage() {
+		return transaction
+				.execute(status -> contactRepository.findContactByUser(ownerId, PageRequest.of(deepPage, PAGE_SIZE)));
+	}
+
+	@Benchmark
+	public Slice<ContactSummary> listContactsDeepPageKeyset() {
+		return contactService.listContacts(ownerId, deepPage, PAGE_SIZE, deepAfterId, null);
+	}
+
+	@Benchmark
+	public Page<Contact> findByNameContainingIgnoreCaseAndUser() {
+		return transaction.execute(status -> contactRepository.findByNameContainingIgnoreCaseAndUser("name12", owner,
+				PageRequest.of(0, PAGE_SIZE)));
+	}
+}
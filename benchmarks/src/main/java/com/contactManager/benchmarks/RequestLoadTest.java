@@ -0,0 +1,262 @@
+package com.contactManager.benchmarks;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import com.contactManager.SmartContactManagerApplication;
+import com.contactManager.execution.ExecutionMode;
+
+/**
+ * Throughput of the contact list page at a fixed number of concurrent
+ * connections, once per {@code app.execution.mode}. Not a JMH benchmark: it
+ * starts the application per mode like {@link BenchmarkDatabase}, logs in
+ * once and keeps {@code load.concurrency} requests in flight over as many
+ * connections for {@code load.seconds}, after a warmup.
+ *
+ * An in-memory database answers far faster than a networked one, which would
+ * hide what the modes differ in, so every Hibernate statement is delayed by
+ * {@code load.jdbc-latency-ms} while holding its connection.
+ *
+ * Run from the project root after {@code mvn -B install -DskipTests}:
+ *
+ * <pre>
+ * mvn -B -f benchmarks/pom.xml package exec:exec@load-test
+ * </pre>
+ *
+ * The modes to compare are the arguments ({@code -Dload.modes} there), other
+ * settings are system properties, see the constants below, passed with
+ * {@code -Dload.jvm-args}. Application properties for every mode go in
+ * {@code load.app-args}. The virtual mode is skipped on Java before 21.
+ */
+public class RequestLoadTest {
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 2000);
+
+	private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+
+	private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+
+	private static final int CONTACTS = Integer.getInteger("load.contacts", 1000);
+
+	private static final String PATH = System.getProperty("load.path", "/user/show_contacts/0");
+
+	private static final String APP_ARGS = System.getProperty("load.app-args", "");
+
+	public static void main(String[] args) throws Exception {
+
+		List<String> modes = args.length > 0 ? Arrays.asList(args) : List.of("platform", "async", "virtual");
+		List<String> results = new ArrayList<>();
+
+		for (String name : modes) {
+
+			ExecutionMode mode = ExecutionMode.fromName(name);
+
+			if (mode == ExecutionMode.VIRTUAL && Runtime.version().feature() < 21) {
+				results.add(String.format("%-8s skipped, needs Java 21 (running %s)", mode, Runtime.version()));
+				continue;
+			}
+
+			results.add(run(mode));
+		}
+
+		System.out.printf("%n%d concurrent connections on GET %s, %d contacts, %d ms per JDBC statement%n",
+				CONCURRENCY, PATH, CONTACTS, JdbcLatency.MILLIS);
+		results.forEach(System.out::println);
+	}
+
+	private static String run(ExecutionMode mode) throws Exception {
+
+		BenchmarkDatabase database = new BenchmarkDatabase();
+		database.contacts = CONTACTS;
+
+		List<String> appArgs = new ArrayList<>(List.of("--app.execution.mode=" + mode.name().toLowerCase(Locale.ROOT),
+				"--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + JdbcLatency.class.getName()));
+
+		if (!APP_ARGS.isBlank()) {
+			appArgs.addAll(Arrays.asList(APP_ARGS.trim().split("\\s+")));
+		}
+
+		database.start(new SpringApplication(SmartContactManagerApplication.class), appArgs.toArray(new String[0]));
+
+		try {
+			int port = ((WebServerApplicationContext) database.context).getWebServer().getPort();
+
+			return String.format("%-8s %s", mode, new Load(port).run());
+
+		} finally {
+			database.stop();
+		}
+	}
+
+	/*
+	 * ========================= LOAD =========================
+	 */
+	private static final class Load {
+
+		private final String base;
+
+		private final ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+
+		private final HttpClient client;
+
+		private final Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+		// both only count once the warmup is over
+		private final AtomicInteger errors = new AtomicInteger();
+
+		private final AtomicInteger completed = new AtomicInteger();
+
+		// latencies of the completed requests, in microseconds
+		private final long[] latencies = new long[4_000_000];
+
+		private volatile boolean measuring;
+
+		Load(int port) {
+			this.base = "http://localhost:" + port;
+			this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).cookieHandler(new CookieManager())
+					.followRedirects(HttpClient.Redirect.NEVER).connectTimeout(Duration.ofSeconds(30))
+					.executor(clientExecutor).build();
+		}
+
+		String run() throws Exception {
+
+			try {
+				login();
+
+				drive(WARMUP_SECONDS);
+
+				measuring = true;
+				long start = System.nanoTime();
+				drive(SECONDS);
+				double elapsed = (System.nanoTime() - start) / 1e9;
+
+				long[] sorted = Arrays.copyOf(latencies, Math.min(completed.get(), latencies.length));
+				Arrays.sort(sorted);
+
+				return String.format("%8.1f req/s  p50 %6d ms  p99 %6d ms  max %6d ms  errors %d",
+						completed.get() / elapsed, percentile(sorted, 50), percentile(sorted, 99),
+						percentile(sorted, 100), errors.get());
+
+			} finally {
+				clientExecutor.shutdownNow();
+			}
+		}
+
+		private void login() throws Exception {
+
+			String form = "username=" + URLEncoder.encode(BenchmarkDatabase.OWNER_EMAIL, StandardCharsets.UTF_8)
+					+ "&password=" + URLEncoder.encode(BenchmarkDatabase.OWNER_PASSWORD, StandardCharsets.UTF_8);
+
+			HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/signin"))
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+
+			String location = response.headers().firstValue("Location").orElse("");
+
+			if (response.statusCode() != 302 || location.contains("error")) {
+				throw new IllegalStateException("Login failed: " + response.statusCode() + " " + location);
+			}
+		}
+
+		/**
+		 * Keeps the semaphore's worth of requests in flight until the time is
+		 * up, then waits for the outstanding ones.
+		 */
+		private void drive(int seconds) throws InterruptedException {
+
+			long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+			HttpRequest request = HttpRequest.newBuilder(URI.create(base + PATH)).timeout(Duration.ofSeconds(60))
+					.GET().build();
+
+			while (System.nanoTime() < end) {
+
+				if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+					continue;
+				}
+
+				long sent = System.nanoTime();
+				boolean measured = measuring;
+
+				client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+
+					inFlight.release();
+
+					if (!measured) {
+						return;
+					}
+
+					if (failure != null || response.statusCode() != 200) {
+						errors.incrementAndGet();
+						return;
+					}
+
+					int slot = completed.getAndIncrement();
+
+					if (slot < latencies.length) {
+						latencies[slot] = (System.nanoTime() - sent) / 1000;
+					}
+				});
+			}
+
+			inFlight.acquire(CONCURRENCY);
+			inFlight.release(CONCURRENCY);
+		}
+
+		private static long percentile(long[] sorted, int percent) {
+
+			if (sorted.length == 0) {
+				return 0;
+			}
+
+			int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+
+			return sorted[Math.max(0, index)] / 1000;
+		}
+	}
+
+	/*
+	 * ========================= SIMULATED LATENCY =========================
+	 */
+
+	/**
+	 * Set as Hibernate's statement inspector, which is created by class name,
+	 * so the delay comes from a system property.
+	 */
+	public static class JdbcLatency implements StatementInspector {
+
+		static final long MILLIS = Long.getLong("load.jdbc-latency-ms", 5);
+
+		@Override
+		public String inspect(String sql) {
+
+			if (MILLIS > 0) {
+				try {
+					Thread.sleep(MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			return sql;
+		}
+	}
+}
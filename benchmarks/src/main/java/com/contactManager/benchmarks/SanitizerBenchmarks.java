@@ -0,0 +1,63 @@
+package com.contactManager.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.helper.ContactSanitizer;
+
+/**
+ * Cost of stripping tags from a description, for plain text and for text
+ * full of markup, up to the 5000 character column limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizerBenchmarks {
+
+	@Param({ "100", "5000" })
+	public int length;
+
+	@Param({ "false", "true" })
+	public boolean markup;
+
+	private String description;
+
+	private Contact contact;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		String unit = markup ? "<b>bold</b> <a href='x'>link</a> " : "plain description text ";
+		StringBuilder text = new StringBuilder(length);
+
+		while (text.length() < length) {
+			text.append(unit);
+		}
+
+		description = text.substring(0, length);
+		contact = new Contact();
+	}
+
+	@Benchmark
+	public String sanitizeDescription() {
+		contact.setDescription(description);
+		ContactSanitizer.sanitizeDescription(contact);
+		return contact.getDescription();
+	}
+}
@@ -0,0 +1,159 @@
+package com.contactManager.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build step, run by the exec plugin at {@code process-classes}: writes a
+ * gzip copy next to every text asset under the given static directory, which
+ * the resource chain ({@code spring.web.resources.chain.compressed}) then
+ * serves to clients accepting gzip, with nothing compressed per request.
+ *
+ * Launched as a single source file, so it stays out of the application jar
+ * and only uses the JDK.
+ *
+ * Images are left alone, JPEG and PNG do not get smaller, and copies that
+ * save less than a tenth are not written. The chain cannot rewrite links in a
+ * compressed stylesheet, so the {@code url(...)} links of the gzip copy are
+ * fingerprinted here, the same way (MD5 of the file) the chain does it for
+ * the plain copy.
+ */
+public final class StaticAssetCompressor {
+
+	private static final Logger log = System.getLogger(StaticAssetCompressor.class.getName());
+
+	private static final Set<String> TEXT_TYPES = Set.of("css", "js", "svg", "html", "json", "txt", "map");
+
+	private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+	private StaticAssetCompressor() {
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: StaticAssetCompressor <static directory>");
+		}
+
+		Path root = Paths.get(args[0]);
+
+		if (!Files.isDirectory(root)) {
+			log.log(Level.INFO, "No static assets in {0}", root);
+			return;
+		}
+
+		List<Path> assets;
+
+		try (Stream<Path> files = Files.walk(root)) {
+			assets = files.filter(Files::isRegularFile).filter(StaticAssetCompressor::isText)
+					.collect(Collectors.toList());
+		}
+
+		assets.forEach(asset -> compress(root, asset));
+	}
+
+	private static boolean isText(Path file) {
+
+		String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+		int dot = name.lastIndexOf('.');
+
+		return dot > 0 && TEXT_TYPES.contains(name.substring(dot + 1));
+	}
+
+	private static void compress(Path root, Path file) {
+
+		try {
+			byte[] content = Files.readAllBytes(file);
+			byte[] gzipped = gzip(file.toString().endsWith(".css") ? fingerprintLinks(root, file, content) : content);
+			Path target = file.resolveSibling(file.getFileName() + ".gz");
+
+			if (gzipped.length > content.length * 0.9) {
+				Files.deleteIfExists(target);
+				return;
+			}
+
+			Files.write(target, gzipped);
+
+			// the same Last-Modified whichever copy is served
+			Files.setLastModifiedTime(target, Files.getLastModifiedTime(file));
+
+			log.log(Level.INFO, "{0}: {1,number,#} -> {2,number,#} bytes", root.relativize(file), content.length, gzipped.length);
+
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not compress " + file, e);
+		}
+	}
+
+	private static byte[] fingerprintLinks(Path root, Path css, byte[] content) throws IOException {
+
+		Matcher matcher = CSS_URL.matcher(new String(content, StandardCharsets.UTF_8));
+		StringBuilder rewritten = new StringBuilder();
+
+		while (matcher.find()) {
+
+			String link = matcher.group(2).trim();
+			Path target = link.contains(":") || link.startsWith("//") || link.startsWith("#") ? null
+					: link.startsWith("/") ? root.resolve(link.substring(1)) : css.resolveSibling(link);
+			String name = link.substring(link.lastIndexOf('/') + 1);
+			int dot = name.lastIndexOf('.');
+
+			if (target == null || dot <= 0 || !Files.isRegularFile(target.normalize())) {
+				continue;
+			}
+
+			String hash = md5Hex(Files.readAllBytes(target.normalize()));
+			String versioned = link.substring(0, link.length() - name.length()) + name.substring(0, dot) + "-" + hash
+					+ name.substring(dot);
+
+			matcher.appendReplacement(rewritten, Matcher.quoteReplacement("url(" + versioned + ")"));
+		}
+
+		matcher.appendTail(rewritten);
+
+		return rewritten.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	// as the chain's content version strategy: lowercase hex of the MD5
+	private static String md5Hex(byte[] content) {
+
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 2 + 64);
+
+		try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			out.write(content);
+		}
+
+		return buffer.toByteArray();
+	}
+}
@@ -1,42 +1,53 @@
 package com.contactManager.Securityconfig;
 
 import java.util.Collection;
-import java.util.List;
 
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.contactManager.entities.User;
 
-public class CustomUserDetails implements UserDetails {
+/**
+ * Login-time view of a {@link User}: the {@link UserPrincipal} plus the
+ * password hash, which is erased once authentication is done. Only the
+ * principal ends up in the security context, see
+ * {@link SecurityConfiguration#authenticationProvider()}.
+ */
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private User user;
+	private final UserPrincipal principal;
+
+	private String password;
 
 	public CustomUserDetails(User user) {
 		super();
-		this.user = user;
+		this.principal = UserPrincipal.of(user);
+		this.password = user.getPassword();
+	}
+
+	public UserPrincipal getPrincipal() {
+		return principal;
 	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		SimpleGrantedAuthority simpleGrantedAuthority = new SimpleGrantedAuthority(user.getRole());
-		return List.of(simpleGrantedAuthority);
+		return principal.getAuthorities();
 	}
 
 	@Override
 	public String getPassword() {
-		return user.getPassword();
+		return password;
 	}
 
 	@Override
 	public String getUsername() {
-		return user.getEmail();
+		return principal.getEmail();
 	}
 
 	@Override
@@ -59,4 +70,9 @@ public class CustomUserDetails implements UserDetails {
 		return true;
 	}
 
+	@Override
+	public void eraseCredentials() {
+		password = null;
+	}
+
 }
@@ -0,0 +1,133 @@
+package com.contactManager.Securityconfig;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets in front of the login steps, one per account and one per
+ * client IP. A request is let through only if both buckets have a token, so
+ * a flood is turned away before it costs a BCrypt check or an OTP mail.
+ *
+ * The buckets are rows of {@code login_bucket}, so the limits hold across
+ * nodes. A token is taken by a single conditional update that refills the
+ * bucket for the time since its last use; the row lock makes concurrent takes
+ * on any node queue up behind each other.
+ *
+ * Buckets that have refilled completely carry no state worth keeping and are
+ * dropped by {@link #purgeIdle()}. The table is capped at
+ * {@code app.login.rate.max-buckets}; past that, new keys are refused.
+ */
+@Component
+public class LoginRateLimiter {
+
+	private static final Logger log = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+	// the clocks of two nodes may disagree a little, time never runs backwards for a bucket
+	private static final String TAKE_TOKEN = "update login_bucket "
+			+ "set tokens = least(max_tokens, tokens + greatest(? - refilled_at, 0) * tokens_per_ms) - 1, "
+			+ "refilled_at = greatest(refilled_at, ?) "
+			+ "where bucket_key = ? and least(max_tokens, tokens + greatest(? - refilled_at, 0) * tokens_per_ms) >= 1";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final int userCapacity;
+
+	private final double userTokensPerMilli;
+
+	private final int ipCapacity;
+
+	private final double ipTokensPerMilli;
+
+	private final int maxBuckets;
+
+	public LoginRateLimiter(JdbcTemplate jdbcTemplate, @Value("${app.login.rate.user.capacity:5}") int userCapacity,
+			@Value("${app.login.rate.user.per-minute:5}") int userPerMinute,
+			@Value("${app.login.rate.ip.capacity:20}") int ipCapacity,
+			@Value("${app.login.rate.ip.per-minute:20}") int ipPerMinute,
+			@Value("${app.login.rate.max-buckets:100000}") int maxBuckets) {
+
+		this.jdbcTemplate = jdbcTemplate;
+		this.userCapacity = userCapacity;
+		this.userTokensPerMilli = (double) userPerMinute / TimeUnit.MINUTES.toMillis(1);
+		this.ipCapacity = ipCapacity;
+		this.ipTokensPerMilli = (double) ipPerMinute / TimeUnit.MINUTES.toMillis(1);
+		this.maxBuckets = maxBuckets;
+	}
+
+	/**
+	 * Takes a token for the account and one for the address. {@code account}
+	 * may be null for steps that are not tied to a username.
+	 *
+	 * @return false when either bucket is empty
+	 */
+	public boolean tryAcquire(String account, String ip) {
+
+		long now = System.currentTimeMillis();
+
+		if (!tryConsume("ip:" + ip, ipCapacity, ipTokensPerMilli, now)) {
+			log.warn("Login rate limit hit for address {}", ip);
+			return false;
+		}
+
+		if (account != null && !tryConsume("user:" + account.trim().toLowerCase(Locale.ROOT), userCapacity,
+				userTokensPerMilli, now)) {
+			log.warn("Login rate limit hit for account {}", account);
+			return false;
+		}
+
+		return true;
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void purgeIdle() {
+		jdbcTemplate.update("delete from login_bucket where tokens + (? - refilled_at) * tokens_per_ms >= max_tokens",
+				System.currentTimeMillis());
+	}
+
+	private boolean tryConsume(String key, int capacity, double tokensPerMilli, long now) {
+
+		if (takeToken(key, now)) {
+			return true;
+		}
+
+		// no token: either the bucket is empty or there is none yet
+		if (jdbcTemplate.queryForObject("select count(*) from login_bucket where bucket_key = ?", Integer.class,
+				key) > 0) {
+			return false;
+		}
+
+		if (bucketCount() >= maxBuckets) {
+			purgeIdle();
+
+			// still full: refuse rather than grow without bound or wave the request through
+			if (bucketCount() >= maxBuckets) {
+				return false;
+			}
+		}
+
+		try {
+			jdbcTemplate.update("insert into login_bucket (bucket_key, tokens, max_tokens, tokens_per_ms, refilled_at) "
+					+ "values (?, ?, ?, ?, ?)", key, capacity - 1, capacity, tokensPerMilli, now);
+			return true;
+		} catch (DuplicateKeyException e) {
+			// created by a concurrent request, take from it like any other
+			return takeToken(key, now);
+		}
+	}
+
+	private boolean takeToken(String key, long now) {
+		return jdbcTemplate.update(TAKE_TOKEN, now, now, key, now) == 1;
+	}
+
+	private int bucketCount() {
+		return jdbcTemplate.queryForObject("select count(*) from login_bucket", Integer.class);
+	}
+}
@@ -0,0 +1,234 @@
+package com.contactManager.Securityconfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * One-time passwords for the second login step, kept out of the HTTP session.
+ *
+ * The pending code of each user is a row of {@code login_otp}, so whichever
+ * node the OTP form is posted to can check it. Codes are stored as an HMAC
+ * under {@code app.otp.secret}, so neither the table nor a heap dump reveals
+ * them; every node needs the same secret. Each code expires after
+ * {@code app.otp.expiry} minutes and is burnt after {@code app.otp.max-attempts}
+ * wrong guesses. The form carries an opaque challenge ({@code userId.nonce})
+ * instead of a session attribute.
+ */
+@Service
+public class OtpService {
+
+	private static final Logger log = LoggerFactory.getLogger(OtpService.class);
+
+	private static final String HMAC = "HmacSHA256";
+
+	public enum Result {
+		VALID, INVALID, EXPIRED
+	}
+
+	private final SecureRandom random = new SecureRandom();
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final SecretKeySpec key;
+
+	private final long ttlMillis;
+
+	private final int maxAttempts;
+
+	public OtpService(JdbcTemplate jdbcTemplate, @Value("${app.otp.secret:}") String secret,
+			@Value("${app.otp.expiry}") int expiryMinutes, @Value("${app.otp.max-attempts:5}") int maxAttempts) {
+
+		this.jdbcTemplate = jdbcTemplate;
+		this.key = new SecretKeySpec(secretBytes(secret), HMAC);
+		this.ttlMillis = TimeUnit.MINUTES.toMillis(expiryMinutes);
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Creates a new code for {@code userId}, replacing any earlier one.
+	 */
+	public IssuedOtp issue(int userId) {
+
+		String code = String.valueOf(100000 + random.nextInt(900000));
+
+		byte[] nonceBytes = new byte[16];
+		random.nextBytes(nonceBytes);
+		String nonce = Base64.getUrlEncoder().withoutPadding().encodeToString(nonceBytes);
+
+		byte[] hash = hash(userId, code);
+		long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+		if (replace(userId, nonce, hash, expiresAt) == 0) {
+			try {
+				jdbcTemplate.update("insert into login_otp (user_id, nonce, code_hash, expires_at, failed_attempts) "
+						+ "values (?, ?, ?, ?, 0)", userId, nonce, hash, expiresAt);
+			} catch (DuplicateKeyException e) {
+				// a login of the same user on another node got there first, the later code wins
+				replace(userId, nonce, hash, expiresAt);
+			}
+		}
+
+		return new IssuedOtp(code, userId + "." + nonce);
+	}
+
+	/**
+	 * Checks {@code code} against the challenge handed out by {@link #issue}.
+	 * A valid code is consumed.
+	 */
+	public Result validate(String challenge, String code) {
+
+		Integer userId = userIdOf(challenge);
+
+		if (userId == null) {
+			return Result.EXPIRED;
+		}
+
+		String nonce = challenge.substring(challenge.indexOf('.') + 1);
+
+		List<PendingOtp> rows = jdbcTemplate.query(
+				"select code_hash, expires_at from login_otp where user_id = ? and nonce = ?",
+				(row, i) -> new PendingOtp(row.getBytes(1), row.getLong(2)), userId, nonce);
+
+		if (rows.isEmpty()) {
+			return Result.EXPIRED;
+		}
+
+		PendingOtp otp = rows.get(0);
+
+		if (System.currentTimeMillis() > otp.expiresAt) {
+			remove(userId, nonce);
+			return Result.EXPIRED;
+		}
+
+		if (code != null && MessageDigest.isEqual(otp.hash, hash(userId, code.trim()))) {
+			// only one of two concurrent posts of the code gets to delete it
+			return remove(userId, nonce) ? Result.VALID : Result.EXPIRED;
+		}
+
+		jdbcTemplate.update("update login_otp set failed_attempts = failed_attempts + 1 where user_id = ? and nonce = ?",
+				userId, nonce);
+
+		// read back, so wrong guesses on other nodes count too
+		List<Integer> failed = jdbcTemplate.queryForList(
+				"select failed_attempts from login_otp where user_id = ? and nonce = ?", Integer.class, userId, nonce);
+
+		if (failed.isEmpty() || failed.get(0) >= maxAttempts) {
+			remove(userId, nonce);
+			log.warn("OTP for user {} burnt after {} wrong attempts", userId, maxAttempts);
+			return Result.EXPIRED;
+		}
+
+		return Result.INVALID;
+	}
+
+	/**
+	 * @return the user id a challenge was issued for, or null if it is malformed
+	 */
+	public Integer userIdOf(String challenge) {
+
+		int dot = challenge == null ? -1 : challenge.indexOf('.');
+
+		if (dot <= 0) {
+			return null;
+		}
+
+		try {
+			return Integer.valueOf(challenge.substring(0, dot));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void purgeExpired() {
+		jdbcTemplate.update("delete from login_otp where expires_at < ?", System.currentTimeMillis());
+	}
+
+	public int getPendingCount() {
+
+		Integer pending = jdbcTemplate.queryForObject("select count(*) from login_otp where expires_at >= ?",
+				Integer.class, System.currentTimeMillis());
+
+		return pending == null ? 0 : pending;
+	}
+
+	private int replace(int userId, String nonce, byte[] hash, long expiresAt) {
+		return jdbcTemplate.update("update login_otp set nonce = ?, code_hash = ?, expires_at = ?, failed_attempts = 0 "
+				+ "where user_id = ?", nonce, hash, expiresAt, userId);
+	}
+
+	private boolean remove(int userId, String nonce) {
+		return jdbcTemplate.update("delete from login_otp where user_id = ? and nonce = ?", userId, nonce) == 1;
+	}
+
+	private byte[] hash(int userId, String code) {
+
+		try {
+			Mac mac = Mac.getInstance(HMAC);
+			mac.init(key);
+			return mac.doFinal((userId + ":" + code).getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("HmacSHA256 not available", e);
+		}
+	}
+
+	private byte[] secretBytes(String secret) {
+
+		if (!secret.isBlank()) {
+			return secret.getBytes(StandardCharsets.UTF_8);
+		}
+
+		// fine for a single node; with several, each would reject the codes the others sent
+		log.warn("app.otp.secret is not set, using a random key: OTPs can only be checked by the node that sent them");
+
+		byte[] generated = new byte[32];
+		random.nextBytes(generated);
+		return generated;
+	}
+
+	private static class PendingOtp {
+
+		private final byte[] hash;
+		private final long expiresAt;
+
+		PendingOtp(byte[] hash, long expiresAt) {
+			this.hash = hash;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	public static class IssuedOtp {
+
+		private final String code;
+		private final String challenge;
+
+		IssuedOtp(String code, String challenge) {
+			this.code = code;
+			this.challenge = challenge;
+		}
+
+		public String getCode() {
+			return code;
+		}
+
+		public String getChallenge() {
+			return challenge;
+		}
+	}
+}
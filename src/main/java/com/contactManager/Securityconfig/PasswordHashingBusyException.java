@@ -0,0 +1,13 @@
+package com.contactManager.Securityconfig;
+
+/**
+ * Thrown instead of waiting when the BCrypt pool cannot take more work.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PasswordHashingBusyException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,138 @@
+package com.contactManager.Securityconfig;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * BCrypt on a small dedicated pool instead of the Tomcat workers.
+ *
+ * At most {@code app.security.bcrypt.workers} hashes run at once and at most
+ * {@code app.security.bcrypt.queue} wait for a worker. Beyond that, or when a
+ * hash has waited longer than {@code app.security.bcrypt.timeout-ms}, the call
+ * fails straight away with {@link PasswordHashingBusyException}. A login storm
+ * therefore gets quick "try again" answers while the rest of the application
+ * keeps its CPU.
+ *
+ * Hashes made with a lower strength than {@code app.security.bcrypt.strength}
+ * report {@link #upgradeEncoding(String)} so they can be rehashed on login.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+	private final BCryptPasswordEncoder encoder;
+
+	private final ThreadPoolExecutor executor;
+
+	private final long timeoutMillis;
+
+	private final Timer matchTimer;
+
+	private final Timer encodeTimer;
+
+	private final Timer queueWaitTimer;
+
+	public PasswordHashingService(MeterRegistry meterRegistry,
+			@Value("${app.security.bcrypt.strength:10}") int strength,
+			@Value("${app.security.bcrypt.workers:0}") int workers,
+			@Value("${app.security.bcrypt.queue:32}") int queueSize,
+			@Value("${app.security.bcrypt.timeout-ms:5000}") long timeoutMillis) {
+
+		this.encoder = new BCryptPasswordEncoder(strength);
+		this.timeoutMillis = timeoutMillis;
+
+		// half the cores by default, leaving the rest for page requests
+		int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		this.matchTimer = Timer.builder("password.hash").tag("operation", "matches").register(meterRegistry);
+		this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+		this.queueWaitTimer = Timer.builder("password.hash.queue.wait")
+				.description("Time a hash waited for a BCrypt worker").register(meterRegistry);
+
+		// registered here, ApplicationMetrics cannot depend on a bean that needs the registry
+		Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size())
+				.description("Password hashes waiting for a BCrypt worker").register(meterRegistry);
+
+		log.info("Password hashing: BCrypt strength {}, {} workers, queue of {}", strength, threads, queueSize);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> matchTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return encoder.upgradeEncoding(encodedPassword);
+	}
+
+	private <T> T submit(Callable<T> task) {
+
+		long queuedAt = System.nanoTime();
+		Future<T> future;
+
+		try {
+			future = executor.submit(() -> {
+				queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+				return task.call();
+			});
+		} catch (RejectedExecutionException e) {
+			throw new PasswordHashingBusyException("Password hashing queue is full");
+		}
+
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new PasswordHashingBusyException("Password hashing timed out after " + timeoutMillis + " ms");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
@@ -2,13 +2,14 @@ package com.contactManager.Securityconfig;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import com.contactManager.entities.User;
 import com.contactManager.repositories.UserRepository;
 
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
 	@Autowired
 	private UserRepository userRepository;
@@ -16,13 +17,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-		User user = userRepository.findByEmail(username).get();
+		User user = userRepository.findByEmail(username)
+				.orElseThrow(() -> new UsernameNotFoundException("could not found user"));
 
-		if (user == null) {
-			throw new UsernameNotFoundException("could not found user");
-		}
 		CustomUserDetails customUserDetails = new CustomUserDetails(user);
 		return customUserDetails;
 	}
 
+	@Override
+	public UserDetails updatePassword(UserDetails details, String newPassword) {
+
+		User user = userRepository.findByEmail(details.getUsername()).get();
+		user.setPassword(newPassword);
+
+		return new CustomUserDetails(userRepository.save(user));
+	}
+
 }
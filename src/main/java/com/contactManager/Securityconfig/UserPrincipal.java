@@ -0,0 +1,84 @@
+package com.contactManager.Securityconfig;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.contactManager.entities.User;
+
+/**
+ * What the security context keeps about a logged-in user.
+ *
+ * Unlike the {@link User} entity it holds no password hash and no lazy
+ * collections, so it is small to serialize with the session and handlers can
+ * read the owner id without a query. {@link #getName()} is the email, as it
+ * was when the principal was a plain username.
+ */
+public final class UserPrincipal implements AuthenticatedPrincipal, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int id;
+
+	private final String email;
+
+	private final String role;
+
+	private final String displayName;
+
+	public UserPrincipal(int id, String email, String role, String displayName) {
+		this.id = id;
+		this.email = email;
+		this.role = role;
+		this.displayName = displayName;
+	}
+
+	public static UserPrincipal of(User user) {
+		return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getName());
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return List.of(new SimpleGrantedAuthority(role));
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof UserPrincipal && ((UserPrincipal) other).id == id;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public String toString() {
+		return "UserPrincipal[id=" + id + ", email=" + email + ", role=" + role + "]";
+	}
+}
@@ -0,0 +1,66 @@
+package com.contactManager.assets;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Lets Tomcat send static files with sendfile, straight from the page cache to
+ * the socket, instead of copying them through the JVM.
+ *
+ * Only resources that are files on disk qualify, not ones inside the
+ * application jar. The file is handed over through Tomcat's sendfile request
+ * attributes before the response commits, Tomcat then writes it once the
+ * request completes. Small files, and connectors without sendfile, go through
+ * the usual copy.
+ */
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+	static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+
+	static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+	static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+	static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	// Tomcat's own threshold for its default servlet: below it, a copy is cheaper
+	static final long MIN_SENDFILE_SIZE = 48 * 1024;
+
+	@Override
+	protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+
+		HttpServletRequest request = currentRequest();
+
+		if (request != null && resource.isFile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+
+			File file = resource.getFile();
+			long length = file.length();
+
+			if (length >= MIN_SENDFILE_SIZE) {
+				request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+				request.setAttribute(SENDFILE_START, 0L);
+				request.setAttribute(SENDFILE_END, length);
+				return;
+			}
+		}
+
+		super.writeContent(resource, outputMessage);
+	}
+
+	private static HttpServletRequest currentRequest() {
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+		return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest()
+				: null;
+	}
+}
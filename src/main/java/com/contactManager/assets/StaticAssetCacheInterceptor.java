@@ -0,0 +1,39 @@
+package com.contactManager.assets;
+
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Cache headers for static assets, set before the resource handler runs.
+ *
+ * A fingerprinted URL ({@code style-<md5>.css}, see the content version
+ * strategy of the resource chain) names exactly one version of the file, so
+ * it may be kept for a year and never revalidated. Anything else is
+ * revalidated every time against its Last-Modified date.
+ *
+ * Spring's {@code CacheControl} cannot express {@code immutable}, hence the
+ * header is written here instead of through the resource cache settings.
+ */
+class StaticAssetCacheInterceptor implements HandlerInterceptor {
+
+	static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+	static final String REVALIDATE = "no-cache";
+
+	private static final Pattern FINGERPRINTED = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		boolean fingerprinted = FINGERPRINTED.matcher(request.getRequestURI()).find();
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+
+		return true;
+	}
+}
@@ -0,0 +1,48 @@
+package com.contactManager.assets;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * Static assets under {@code /css}, {@code /js} and {@code /img}.
+ *
+ * Fingerprinting and the precompressed copies are the resource chain's, see
+ * {@code spring.web.resources.chain.*}; this adds the cache headers and lets
+ * the resource handlers hand large files to sendfile.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StaticAssetConfiguration implements WebMvcConfigurer {
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new StaticAssetCacheInterceptor()).addPathPatterns("/css/**", "/js/**", "/img/**");
+	}
+
+	@Bean
+	public static BeanPostProcessor sendfileResourceHandlers() {
+
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+				if ("resourceHandlerMapping".equals(beanName) && bean instanceof AbstractUrlHandlerMapping) {
+
+					((AbstractUrlHandlerMapping) bean).getHandlerMap().values().stream()
+							.filter(ResourceHttpRequestHandler.class::isInstance)
+							.map(ResourceHttpRequestHandler.class::cast)
+							.forEach(handler -> handler.setResourceHttpMessageConverter(
+									new SendfileResourceHttpMessageConverter()));
+				}
+
+				return bean;
+			}
+		};
+	}
+}
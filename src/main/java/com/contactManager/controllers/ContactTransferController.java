@@ -0,0 +1,204 @@
+package com.contactManager.controllers;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.contactManager.Securityconfig.UserPrincipal;
+import com.contactManager.execution.BlockingHandler;
+import com.contactManager.helper.Message;
+import com.contactManager.transfer.ContactExportService;
+import com.contactManager.transfer.ContactImportService;
+import com.contactManager.transfer.ExportFormat;
+import com.contactManager.transfer.ImportReport;
+
+@Controller
+@RequestMapping("/user")
+public class ContactTransferController {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactTransferController.class);
+
+	@Autowired
+	private ContactImportService contactImportService;
+
+	@Autowired
+	private ContactExportService contactExportService;
+
+	// the multipart limits are for images, an import file has its own
+	@Value("${app.import.max-size:200MB}")
+	private DataSize maxImportSize;
+
+	/*
+	 * ========================= IMPORT =========================
+	 */
+	@GetMapping("/import")
+	public String importPage(@AuthenticationPrincipal UserPrincipal principal, Model model) {
+
+		// the outcome of the last import, posted by script.js before it reloads this page
+		contactImportService.getReport(principal.getId()).filter(report -> !report.isRunning())
+				.ifPresent(report -> model.addAttribute("report", report));
+
+		return "normal/import_contacts";
+	}
+
+	/**
+	 * Imports the file sent as the raw request body. Unlike a multipart upload,
+	 * which the container stores whole before the handler runs, the body is
+	 * parsed straight off the connection as it arrives.
+	 */
+	@PostMapping(path = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	@BlockingHandler
+	@ResponseBody
+	public ResponseEntity<ImportReport> importContacts(@RequestParam("name") String fileName,
+			@AuthenticationPrincipal UserPrincipal principal, HttpServletRequest request, HttpSession session) {
+
+		if (request.getContentLengthLong() == 0) {
+			session.setAttribute("message", new Message("Please choose a CSV or vCard file", "alert-warning"));
+			return ResponseEntity.badRequest().build();
+		}
+
+		if (request.getContentLengthLong() > maxImportSize.toBytes()) {
+			session.setAttribute("message",
+					new Message("Import files are limited to " + maxImportSize.toMegabytes() + " MB", "alert-danger"));
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+		}
+
+		try (InputStream in = new LimitedInputStream(request.getInputStream(), maxImportSize.toBytes())) {
+
+			ImportReport report = contactImportService.importContacts(principal.getId(), in, fileName);
+
+			session.setAttribute("message",
+					new Message("Imported " + report.getImported() + " contacts", "alert-success"));
+
+			return ResponseEntity.ok(report);
+
+		} catch (Exception e) {
+
+			log.error("Import failed for user: {}", principal.getName(), e);
+
+			session.setAttribute("message", new Message("Import failed: " + e.getMessage(), "alert-danger"));
+
+			return contactImportService.getReport(principal.getId())
+					.map(report -> ResponseEntity.unprocessableEntity().body(report))
+					.orElse(ResponseEntity.unprocessableEntity().build());
+		}
+	}
+
+	@GetMapping("/import/progress")
+	@ResponseBody
+	public ResponseEntity<ImportReport> importProgress(@AuthenticationPrincipal UserPrincipal principal) {
+
+		return contactImportService.getReport(principal.getId())
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.noContent().build());
+	}
+
+	/*
+	 * ========================= EXPORT =========================
+	 */
+	@GetMapping("/export")
+	public void exportContacts(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(defaultValue = "false") boolean gzip, @AuthenticationPrincipal UserPrincipal principal,
+			HttpServletResponse response) throws IOException {
+
+		ExportFormat exportFormat;
+
+		try {
+			exportFormat = ExportFormat.fromName(format);
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+
+		String fileName = "contacts." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+		response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.attachment().filename(fileName).build().toString());
+
+		// rows go straight to the client as they are read, nothing is buffered whole
+		OutputStream out = response.getOutputStream();
+
+		if (gzip) {
+			GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+			contactExportService.export(principal.getId(), exportFormat, compressed);
+			compressed.finish();
+		} else {
+			contactExportService.export(principal.getId(), exportFormat, out);
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Fails the read once more than {@code limit} bytes came through, for
+	 * bodies sent without a Content-Length.
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		LimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.remaining = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			int b = super.read();
+
+			if (b >= 0) {
+				consumed(1);
+			}
+
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			int n = super.read(b, off, len);
+
+			if (n > 0) {
+				consumed(n);
+			}
+
+			return n;
+		}
+
+		private void consumed(long bytes) throws IOException {
+
+			remaining -= bytes;
+
+			if (remaining < 0) {
+				throw new IOException("The import file is larger than the limit");
+			}
+		}
+	}
+}
@@ -1,33 +1,39 @@
 package com.contactManager.controllers;
 
-import java.security.Principal;
-import java.util.Optional;
-
-import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-import com.contactManager.entities.User;
-import com.contactManager.repositories.UserRepository;
+import com.contactManager.Securityconfig.UserPrincipal;
 
 @ControllerAdvice
 public class GlobalAdviceController {
 
-	@Autowired
-	private UserRepository userRepository;
+	private static final Logger log = LoggerFactory.getLogger(GlobalAdviceController.class);
 
 	@ModelAttribute
-	public void addCommonData(org.springframework.ui.Model model, Principal principal) {
+	public void addCommonData(org.springframework.ui.Model model, @AuthenticationPrincipal UserPrincipal principal) {
 
+		// not "user", which is the signup form object
 		if (principal != null) {
+			model.addAttribute("currentUser", principal);
+		}
+	}
 
-			String username = principal.getName();
+	// the request I/O executor (app.execution.mode=async) is full
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<String> busy(TaskRejectedException e) {
 
-			Optional<User> userOptional = userRepository.findByEmail(username);
+		log.warn("Request refused: {}", e.getMessage());
 
-			if (userOptional.isPresent()) {
-				model.addAttribute("user", userOptional.get());
-			}
-		}
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+				.body("Server is busy. Please try again in a moment.");
 	}
 }
@@ -6,7 +6,6 @@ import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -15,6 +14,8 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.contactManager.Securityconfig.PasswordHashingBusyException;
+import com.contactManager.Securityconfig.PasswordHashingService;
 import com.contactManager.entities.User;
 import com.contactManager.helper.Message;
 import com.contactManager.repositories.UserRepository;
@@ -28,7 +29,7 @@ public class HomeController {
 	private static final Logger log = LoggerFactory.getLogger(HomeController.class);
 
 	@Autowired
-	private BCryptPasswordEncoder bCryptPasswordEncoder;
+	private PasswordHashingService passwordHashingService;
 
 	@Autowired
 	private UserRepository userRepository;
@@ -82,7 +83,7 @@ public class HomeController {
 			user.setRole("ROLE_USER");
 			user.setEnabled(true);
 			user.setImageUrl("default.png");
-			user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
+			user.setPassword(passwordHashingService.encode(user.getPassword()));
 
 			userRepository.save(user);
 
@@ -91,6 +92,9 @@ public class HomeController {
 			model.addAttribute("user", new User());
 			session.setAttribute("message", new Message("Successfully registered! Please login.", "alert-success"));
 
+		} catch (PasswordHashingBusyException e) {
+			log.warn("Registration for {} refused, password hashing busy", user.getEmail());
+			session.setAttribute("message", new Message("Server is busy. Please try again in a moment.", "alert-warning"));
 		} catch (Exception e) {
 			log.error("Error during user registration for email: {}", user.getEmail(), e);
 			session.setAttribute("message", new Message("Something went wrong! Please try again.", "alert-danger"));
@@ -0,0 +1,127 @@
+package com.contactManager.controllers;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.contactManager.imagestore.ImageStore;
+import com.contactManager.imagestore.ImageVariant;
+import com.contactManager.imagestore.ThumbnailService;
+
+@Controller
+public class ImageController {
+
+	private static final Logger log = LoggerFactory.getLogger(ImageController.class);
+
+	// stored images never change under a given key
+	private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+
+	private static final Pattern LEGACY_NAME = Pattern.compile("[A-Za-z0-9._ -]+");
+
+	@Autowired
+	private ImageStore imageStore;
+
+	@Autowired
+	private ThumbnailService thumbnailService;
+
+	/*
+	 * ========================= CONTACT IMAGES =========================
+	 */
+	@GetMapping("/images/{name:.+}")
+	public ResponseEntity<Resource> image(@PathVariable String name,
+			@RequestParam(value = "size", required = false) String size,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+		if (imageStore.isStoreKey(name)) {
+
+			Optional<ImageVariant> variant = ImageVariant.fromName(size);
+
+			if (variant.isPresent()) {
+				return variant(name, variant.get(), ifNoneMatch);
+			}
+
+			String etag = "\"" + name + "\"";
+
+			if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+				return notModified(etag);
+			}
+
+			Optional<Resource> stored = imageStore.load(name);
+
+			if (stored.isPresent()) {
+				return ResponseEntity.ok().eTag(etag).header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+						.contentType(contentType(stored.get())).body(stored.get());
+			}
+
+			log.warn("Stored image not found: {}", name);
+			return ResponseEntity.notFound().build();
+		}
+
+		// contacts saved before the image store still point at files under static/img
+		if (LEGACY_NAME.matcher(name).matches() && !name.contains("..")) {
+
+			Resource legacy = new ClassPathResource("static/img/" + name);
+
+			if (legacy.exists()) {
+				return ResponseEntity.ok().cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate())
+						.contentType(contentType(legacy)).body(legacy);
+			}
+		}
+
+		return ResponseEntity.notFound().build();
+	}
+
+	private ResponseEntity<Resource> variant(String key, ImageVariant variant, String ifNoneMatch) {
+
+		String etag = "\"" + key + "." + variant.getName() + "\"";
+
+		if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+			return notModified(etag);
+		}
+
+		Optional<Resource> resized = imageStore.loadVariant(key, variant);
+
+		if (resized.isPresent()) {
+			return ResponseEntity.ok().eTag(etag).header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+					.contentType(MediaType.IMAGE_JPEG).body(resized.get());
+		}
+
+		// not generated yet: ask for it and serve the original for a short while
+		thumbnailService.generate(key);
+
+		Optional<Resource> original = imageStore.load(key);
+
+		if (original.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		return ResponseEntity.ok().cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES).cachePrivate())
+				.contentType(contentType(original.get())).body(original.get());
+	}
+
+	private static ResponseEntity<Resource> notModified(String etag) {
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+				.build();
+	}
+
+	private static MediaType contentType(Resource resource) {
+		return MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+	}
+}
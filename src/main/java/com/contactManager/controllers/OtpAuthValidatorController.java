@@ -1,24 +1,29 @@
 package com.contactManager.controllers;
 
-import java.util.Collections;
 import java.util.Optional;
-import java.util.Random;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.contactManager.Securityconfig.LoginRateLimiter;
+import com.contactManager.Securityconfig.OtpService;
+import com.contactManager.Securityconfig.PasswordHashingBusyException;
+import com.contactManager.Securityconfig.PasswordHashingService;
+import com.contactManager.Securityconfig.UserPrincipal;
 import com.contactManager.entities.User;
 import com.contactManager.mailsender.EmailService;
 import com.contactManager.repositories.UserRepository;
@@ -29,7 +34,7 @@ public class OtpAuthValidatorController {
 	private static final Logger log = LoggerFactory.getLogger(OtpAuthValidatorController.class);
 
 	@Autowired
-	private BCryptPasswordEncoder passwordEncoder;
+	private PasswordHashingService passwordHashingService;
 
 	@Autowired
 	private UserRepository userRepository;
@@ -37,6 +42,12 @@ public class OtpAuthValidatorController {
 	@Autowired
 	private EmailService emailService;
 
+	@Autowired
+	private OtpService otpService;
+
+	@Autowired
+	private LoginRateLimiter rateLimiter;
+
 	@Value("${mail.otp.subject}")
 	private String otpSubject;
 
@@ -48,11 +59,16 @@ public class OtpAuthValidatorController {
 
 	// ================= STEP 1 - Validate Username & Password =================
 	@PostMapping("/login-verify")
-	public String loginVerify(@RequestParam String username, @RequestParam String password, HttpSession session,
-			Model model) {
+	public String loginVerify(@RequestParam String username, @RequestParam String password,
+			HttpServletRequest request, HttpServletResponse response, Model model) {
 
 		log.info("Login attempt for user: {}", username);
 
+		// before any lookup, so a flood costs neither BCrypt nor SMTP
+		if (!rateLimiter.tryAcquire(username, request.getRemoteAddr())) {
+			return tooManyAttempts(response, model);
+		}
+
 		Optional<User> optionalUser = userRepository.findByEmail(username);
 
 		if (optionalUser.isEmpty()) {
@@ -63,39 +79,46 @@ public class OtpAuthValidatorController {
 
 		User user = optionalUser.get();
 
-		if (!passwordEncoder.matches(password, user.getPassword())) {
-			log.warn("Login failed - wrong password for user: {}", username);
-			model.addAttribute("error", "Invalid Username or Password");
+		try {
+			if (!passwordHashingService.matches(password, user.getPassword())) {
+				log.warn("Login failed - wrong password for user: {}", username);
+				model.addAttribute("error", "Invalid Username or Password");
+				return "login";
+			}
+
+			rehashIfWeaker(user, password);
+
+		} catch (PasswordHashingBusyException e) {
+			log.warn("Login for {} refused: {}", username, e.getMessage());
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+			model.addAttribute("error", "Server is busy. Please try again in a moment.");
 			return "login";
 		}
 
-		// Generate 6-digit OTP
-		String otp = String.valueOf(new Random().nextInt(900000) + 100000);
-
-		session.setAttribute("otp", otp);
-		session.setAttribute("user", user);
+		OtpService.IssuedOtp otp = otpService.issue(user.getId());
 
 		log.info("Password verified successfully for user: {}", username);
-		log.debug("Generated OTP for user {}: {}", username, otp); // remove in production if needed
 
 		String subject = otpSubject;
 
 		String body = String.format(otpBody, user.getName(), // %s → username
-				otp, // %s → otp
+				otp.getCode(), // %s → otp
 				otpExpiry // %s → expiry minutes
 		);
 
-		boolean mailSent = emailService.sendEmail(user.getEmail(), subject, body);
+		boolean mailQueued = emailService.queueEmail(user.getEmail(), subject, body);
 
-		if (!mailSent) {
-			log.error("Failed to send OTP email to user: {}", username);
+		if (!mailQueued) {
+			log.error("Failed to queue OTP email to user: {}", username);
 			model.addAttribute("error", "Unable to send OTP. Please try again later.");
 			return "login";
 		}
 
-		log.info("OTP sent successfully to user: {}", username);
+		log.info("OTP queued for user: {}", username);
 
 		model.addAttribute("otpSent", true);
+		model.addAttribute("challenge", otp.getChallenge());
 		model.addAttribute("success", "OTP sent successfully");
 
 		return "login";
@@ -103,37 +126,74 @@ public class OtpAuthValidatorController {
 
 	// ================= STEP 2 - Validate OTP =================
 	@PostMapping("/validate-otp")
-	public String validateOtp(@RequestParam String otp, HttpSession session, Model model) {
+	public String validateOtp(@RequestParam String otp, @RequestParam(defaultValue = "") String challenge,
+			HttpServletRequest request, HttpServletResponse response, HttpSession session, Model model) {
 
-		String sessionOtp = (String) session.getAttribute("otp");
-		User user = (User) session.getAttribute("user");
+		if (!rateLimiter.tryAcquire(null, request.getRemoteAddr())) {
+			return tooManyAttempts(response, model);
+		}
 
-		if (sessionOtp == null || user == null) {
-			log.warn("OTP validation failed - session expired");
-			model.addAttribute("error", "Session expired. Please login again.");
+		OtpService.Result result = otpService.validate(challenge, otp);
+
+		if (result == OtpService.Result.EXPIRED) {
+			log.warn("OTP validation failed - expired or unknown challenge");
+			model.addAttribute("error", "OTP expired. Please login again.");
 			return "login";
 		}
 
-		if (!otp.equals(sessionOtp)) {
-			log.warn("Invalid OTP entered for user: {}", user.getEmail());
+		if (result == OtpService.Result.INVALID) {
+			log.warn("Invalid OTP entered for user id: {}", otpService.userIdOf(challenge));
 			model.addAttribute("error", "Invalid OTP");
+			model.addAttribute("otpSent", true);
+			model.addAttribute("challenge", challenge);
+			return "login";
+		}
+
+		Optional<User> optionalUser = userRepository.findById(otpService.userIdOf(challenge));
+
+		if (optionalUser.isEmpty()) {
+			model.addAttribute("error", "Session expired. Please login again.");
 			return "login";
 		}
 
+		User user = optionalUser.get();
+
 		log.info("OTP verified successfully for user: {}", user.getEmail());
 
-		UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null,
-				Collections.singletonList(new SimpleGrantedAuthority(user.getRole())));
+		UserPrincipal principal = UserPrincipal.of(user);
+
+		UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null,
+				principal.getAuthorities());
 
 		SecurityContextHolder.getContext().setAuthentication(auth);
 
 		session.setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
 
-		session.removeAttribute("otp");
-		session.removeAttribute("user");
-
 		log.info("User logged in successfully: {}", user.getEmail());
 
 		return "redirect:/user/index";
 	}
+
+	// the strength was raised since this hash was made, store a stronger one
+	private void rehashIfWeaker(User user, String password) {
+
+		if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+			return;
+		}
+
+		try {
+			user.setPassword(passwordHashingService.encode(password));
+			userRepository.save(user);
+			log.info("Rehashed password of user {} with the current BCrypt strength", user.getEmail());
+		} catch (RuntimeException e) {
+			// the login goes on, the rehash is retried next time
+			log.warn("Could not rehash password of user {}: {}", user.getEmail(), e.getMessage());
+		}
+	}
+
+	private String tooManyAttempts(HttpServletResponse response, Model model) {
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		model.addAttribute("error", "Too many login attempts. Please wait a minute and try again.");
+		return "login";
+	}
 }
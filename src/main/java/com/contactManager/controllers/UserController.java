@@ -1,83 +1,106 @@
 package com.contactManager.controllers;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.Principal;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.contactManager.Securityconfig.UserPrincipal;
+import com.contactManager.dto.ContactSuggestion;
+import com.contactManager.dto.ContactSummary;
 import com.contactManager.entities.Contact;
-import com.contactManager.entities.User;
+import com.contactManager.execution.BlockingHandler;
+import com.contactManager.helper.ContactSanitizer;
 import com.contactManager.helper.Message;
+import com.contactManager.imagestore.ImageStore;
+import com.contactManager.imagestore.ThumbnailService;
+import com.contactManager.pagecache.ContactListFragments;
+import com.contactManager.pagecache.ContactPageInterceptor;
 import com.contactManager.repositories.ContactRepository;
-import com.contactManager.repositories.UserRepository;
-import com.contactManager.services.UserServiceImpl;
+import com.contactManager.services.ContactServiceImpl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Controller
 @RequestMapping("/user")
+@BlockingHandler
 @Slf4j
 public class UserController {
 
-	private static final Logger log = LoggerFactory.getLogger(HomeController.class);
+	private static final int CONTACTS_PER_PAGE = 6;
 
-	@Autowired
-	private UserRepository userRepository;
+	private static final int MAX_SUGGESTIONS = 10;
 
 	@Autowired
 	private ContactRepository contactRepository;
 
-	/*
-	 * ========================= COMMON USER DATA =========================
-	 */
-	@ModelAttribute
-	public void addCommonData(Model model, Principal principal) {
+	@Autowired
+	private ContactServiceImpl contactService;
 
-		if (principal == null) {
-			log.warn("Principal is null while adding common data");
-			return;
-		}
+	@Autowired
+	private ImageStore imageStore;
 
-		Optional<User> optionalUser = userRepository.findByEmail(principal.getName());
+	@Autowired
+	private ThumbnailService thumbnailService;
 
-		if (optionalUser.isPresent()) {
-			model.addAttribute("user", optionalUser.get());
-			log.debug("Common user data added for: {}", principal.getName());
-		} else {
-			log.warn("User not found for principal: {}", principal.getName());
-		}
+	@Autowired
+	private ContactListFragments contactListFragments;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Timer uploadSucceeded;
+
+	private Timer uploadFailed;
+
+	private DistributionSummary uploadSize;
+
+	@PostConstruct
+	public void registerMeters() {
+
+		uploadSucceeded = uploadTimer("success");
+		uploadFailed = uploadTimer("failure");
+		uploadSize = DistributionSummary.builder("contact.image.upload.size").baseUnit("bytes")
+				.register(meterRegistry);
 	}
 
 	/*
 	 * ========================= DASHBOARD =========================
 	 */
 	@GetMapping("/index")
-	public String dashboard(Authentication authentication) {
-		log.info("Dashboard accessed by user: {}", authentication.getName());
+	public String dashboard(@AuthenticationPrincipal UserPrincipal principal, Model model) {
+		log.info("Dashboard accessed by user: {}", principal.getName());
+
+		model.addAttribute("stats", contactService.getStats(principal.getId()));
+
 		return "normal/user_dashboard";
 	}
 
@@ -93,28 +116,16 @@ public class UserController {
 
 	@PostMapping("/process-contact")
 	public String processForm(@ModelAttribute Contact contact, @RequestParam("profileImage") MultipartFile file,
-			Principal principal, HttpSession session) {
+			@AuthenticationPrincipal UserPrincipal principal, HttpSession session) {
 
 		try {
 
 			log.info("Adding contact for user: {}", principal.getName());
 
-			Optional<User> optionalUser = userRepository.findByEmail(principal.getName());
-
-			if (!optionalUser.isPresent()) {
-				log.warn("User not found while adding contact: {}", principal.getName());
-				return "redirect:/signin";
-			}
-
-			User user = optionalUser.get();
-
 			handleImageUpload(contact, file);
-			sanitizeDescription(contact);
+			ContactSanitizer.sanitizeDescription(contact);
 
-			user.getContacts().add(contact);
-			contact.setUser(user);
-
-			userRepository.save(user);
+			contactService.addContact(principal.getId(), contact);
 
 			log.info("Contact added successfully for user: {}", principal.getName());
 
@@ -134,39 +145,27 @@ public class UserController {
 	 * ========================= SHOW CONTACTS =========================
 	 */
 	@GetMapping("/show_contacts/{page}")
-	public String showContacts(@PathVariable Integer page, Model model, Authentication authentication,
-			HttpSession session) {
+	public String showContacts(@PathVariable Integer page,
+			@RequestParam(value = "after", required = false) Integer afterId,
+			@RequestParam(value = "before", required = false) Integer beforeId, Model model,
+			@AuthenticationPrincipal UserPrincipal principal,
+			@RequestAttribute(name = ContactPageInterceptor.VERSION_ATTRIBUTE, required = false) Long version,
+			HttpServletRequest request, HttpServletResponse response, HttpSession session) {
 
 		try {
 
-			if (authentication == null || !authentication.isAuthenticated()) {
-				log.warn("Unauthenticated access attempt to show contacts");
-				return "redirect:/signin";
-			}
-
-			String email = authentication.getName();
-			log.info("Fetching contacts for user: {} | Page: {}", email, page);
+			log.info("Fetching contacts for user: {} | Page: {}", principal.getName(), page);
 
-			Optional<User> optionalUser = userRepository.findByEmail(email);
-
-			if (!optionalUser.isPresent()) {
-				log.warn("User not found while fetching contacts: {}", email);
-				return "redirect:/signin";
-			}
+			// the table comes from the cache unless the contacts changed since it was rendered
+			Supplier<Map<String, Object>> listModel = () -> contactListModel(principal.getId(), page, afterId,
+					beforeId);
 
-			User user = optionalUser.get();
+			String contactList = version == null ? contactListFragments.render(listModel.get(), request, response)
+					: contactListFragments.get(
+							new ContactListFragments.Key(principal.getId(), version, page, afterId, beforeId), listModel,
+							request, response);
 
-			Pageable pageable = PageRequest.of(page, 6);
-			Page<Contact> contacts = contactRepository.findContactByUser(user.getId(), pageable);
-
-			if (contacts.isEmpty()) {
-				log.info("No contacts found for user: {}", email);
-				model.addAttribute("noContacts", true);
-			}
-
-			model.addAttribute("allContacts", contacts);
-			model.addAttribute("currentPage", page);
-			model.addAttribute("totalPages", contacts.getTotalPages());
+			model.addAttribute("contactList", contactList);
 
 			return "normal/show_contacts";
 
@@ -180,31 +179,46 @@ public class UserController {
 		}
 	}
 
+	private Map<String, Object> contactListModel(int ownerId, int page, Integer afterId, Integer beforeId) {
+
+		Slice<ContactSummary> contacts = contactService.listContacts(ownerId, page, CONTACTS_PER_PAGE, afterId,
+				beforeId);
+
+		long totalContacts = contactService.countContacts(ownerId);
+
+		Map<String, Object> listModel = new HashMap<>();
+		listModel.put("allContacts", contacts);
+		listModel.put("currentPage", page);
+		listModel.put("totalPages", (int) ((totalContacts + CONTACTS_PER_PAGE - 1) / CONTACTS_PER_PAGE));
+
+		if (contacts.hasContent()) {
+			List<ContactSummary> content = contacts.getContent();
+			listModel.put("firstContactId", content.get(0).getContact_id());
+			listModel.put("lastContactId", content.get(content.size() - 1).getContact_id());
+		}
+
+		return listModel;
+	}
+
 	/*
 	 * ========================= CONTACT DETAILS =========================
 	 */
 	@GetMapping("/{contact_id}/contact")
-	public String showContactDetails(@PathVariable("contact_id") Integer contactId, Model model, Principal principal) {
+	public String showContactDetails(@PathVariable("contact_id") Integer contactId, Model model,
+			@AuthenticationPrincipal UserPrincipal principal) {
 
 		try {
 
 			log.info("Fetching contact details for ID: {}", contactId);
 
-			Optional<Contact> optionalContact = contactRepository.findById(contactId);
-
-			if (!optionalContact.isPresent()) {
-				log.warn("Contact not found: {}", contactId);
-				return "redirect:/user/show_contacts/0";
-			}
-
-			Contact contact = optionalContact.get();
-			User user = userRepository.findByEmail(principal.getName()).get();
+			// scoped by owner in the query: another user's contact reads as missing
+			Optional<Contact> contact = contactRepository.findOwnedContact(contactId, principal.getId());
 
-			if (user.getId() == contact.getUser().getId()) {
-				model.addAttribute("contact", contact);
+			if (contact.isPresent()) {
+				model.addAttribute("contact", contact.get());
 				log.info("Contact details shown for ID: {}", contactId);
 			} else {
-				log.warn("Unauthorized access to contact ID: {}", contactId);
+				log.warn("Contact {} not found for user {}", contactId, principal.getId());
 			}
 
 		} catch (Exception e) {
@@ -218,36 +232,23 @@ public class UserController {
 	 * ========================= DELETE CONTACT =========================
 	 */
 	@GetMapping("/delete/{contact_id}")
-	public String deleteContact(@PathVariable("contact_id") Integer contactId, Principal principal,
-			HttpSession session) {
+	public String deleteContact(@PathVariable("contact_id") Integer contactId,
+			@AuthenticationPrincipal UserPrincipal principal, HttpSession session) {
 
 		try {
 
 			log.info("Delete request for contact ID: {}", contactId);
 
-			Optional<Contact> optionalContact = contactRepository.findById(contactId);
-
-			if (!optionalContact.isPresent()) {
-				log.warn("Contact not found for deletion: {}", contactId);
-				return "redirect:/user/show_contacts/0";
-			}
-
-			Contact contact = optionalContact.get();
-			User user = userRepository.findByEmail(principal.getName()).get();
-
-			if (user.getId() == contact.getUser().getId()) {
-
-				user.getContacts().remove(contact);
-				userRepository.save(user);
+			if (contactService.deleteContact(principal.getId(), contactId)) {
 
 				log.info("Contact deleted successfully: {}", contactId);
 
 				session.setAttribute("message", new Message("Contact deleted successfully", "alert-success"));
 			} else {
 
-				log.warn("Unauthorized delete attempt for contact ID: {}", contactId);
+				log.warn("Contact not found or unauthorized delete attempt for contact ID: {}", contactId);
 
-				session.setAttribute("message", new Message("Unauthorized action", "alert-danger"));
+				session.setAttribute("message", new Message("Contact not found or unauthorized action", "alert-danger"));
 			}
 
 		} catch (Exception e) {
@@ -264,9 +265,10 @@ public class UserController {
 	 * ========================= UPDATE CONTACT =========================
 	 */
 	@PostMapping("/update-contact/{contact_id}")
-	public String updateContact(@PathVariable("contact_id") Integer contactId, Model model) {
+	public String updateContact(@PathVariable("contact_id") Integer contactId, Model model,
+			@AuthenticationPrincipal UserPrincipal principal) {
 
-		Optional<Contact> optionalContact = contactRepository.findById(contactId);
+		Optional<Contact> optionalContact = contactRepository.findOwnedContact(contactId, principal.getId());
 
 		if (optionalContact.isPresent()) {
 			model.addAttribute("contact", optionalContact.get());
@@ -280,29 +282,53 @@ public class UserController {
 
 	@PostMapping("/process-update")
 	public String processUpdate(@ModelAttribute Contact contact, @RequestParam("profileImage") MultipartFile file,
-			Principal principal, HttpSession session) {
+			@AuthenticationPrincipal UserPrincipal principal, Model model, HttpSession session) {
+
+		String newImage = null;
 
 		try {
 
-			log.info("Updating contact ID: {}", contact.getContact_id());
+			log.info("Updating contact ID: {} (version {})", contact.getContact_id(), contact.getVersion());
+
+			// null keeps the stored image, the replaced one is released once the update commits
+			newImage = file.isEmpty() ? null : storeImage(file);
+			contact.setImage(newImage);
+			ContactSanitizer.sanitizeDescription(contact);
+
+			if (contactService.updateContact(principal.getId(), contact).isPresent()) {
+
+				log.info("Contact updated successfully: {}", contact.getContact_id());
+
+				session.setAttribute("message", new Message("Contact updated successfully", "alert-success"));
+			} else {
+
+				log.warn("Contact not found or unauthorized update attempt for contact ID: {}", contact.getContact_id());
+
+				releaseUnused(newImage);
+				session.setAttribute("message", new Message("Contact not found or unauthorized action", "alert-danger"));
+			}
 
-			User user = userRepository.findByEmail(principal.getName()).get();
-			Contact oldContact = contactRepository.findById(contact.getContact_id()).get();
+		} catch (OptimisticLockingFailureException e) {
 
-			updateImage(contact, file, oldContact);
-			sanitizeDescription(contact);
+			log.info("Update of contact ID: {} lost against a newer version", contact.getContact_id());
 
-			contact.setUser(user);
-			contactRepository.save(contact);
+			releaseUnused(newImage);
 
-			log.info("Contact updated successfully: {}", contact.getContact_id());
+			// show the saved version, the user applies their changes to it again
+			contactRepository.findOwnedContact(contact.getContact_id(), principal.getId())
+					.ifPresent(current -> model.addAttribute("contact", current));
+			session.setAttribute("message", new Message(
+					"This contact was changed in another tab or window. The form now shows the saved version, "
+							+ "please apply your changes again.",
+					"alert-warning"));
 
-			session.setAttribute("message", new Message("Contact updated successfully", "alert-success"));
+			return "normal/update_form";
 
 		} catch (Exception e) {
 
 			log.error("Error updating contact ID: {}", contact.getContact_id(), e);
 
+			releaseUnused(newImage);
 			session.setAttribute("message", new Message("Something went wrong: " + e.getMessage(), "alert-danger"));
 		}
 
@@ -316,45 +342,44 @@ public class UserController {
 	private void handleImageUpload(Contact contact, MultipartFile file) throws Exception {
 
 		if (file.isEmpty()) {
-			contact.setImage("contact.png");
+			contact.setImage(Contact.DEFAULT_IMAGE);
 			return;
 		}
 
-		contact.setImage(file.getOriginalFilename());
-
-		File saveDir = new ClassPathResource("static/img").getFile();
-		Path path = Paths.get(saveDir.getAbsolutePath(), file.getOriginalFilename());
-
-		Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+		contact.setImage(storeImage(file));
 	}
 
-	private void updateImage(Contact contact, MultipartFile file, Contact oldContact) throws Exception {
+	// an upload stored for an update that did not happen
+	private void releaseUnused(String image) {
 
-		if (file.isEmpty()) {
-			contact.setImage(oldContact.getImage());
-			return;
+		if (image != null) {
+			contactService.releaseImage(image);
 		}
+	}
 
-		File imgDir = new ClassPathResource("static/img").getFile();
-		File oldFile = new File(imgDir, oldContact.getImage());
+	private String storeImage(MultipartFile file) throws Exception {
 
-		if (oldFile.exists())
-			oldFile.delete();
+		String key = null;
+		Timer.Sample upload = Timer.start(meterRegistry);
 
-		contact.setImage(file.getOriginalFilename());
+		try (InputStream in = file.getInputStream()) {
+			key = imageStore.store(in, file.getOriginalFilename());
+		} finally {
+			// rejected and broken uploads are timed too, they are often the slow ones
+			upload.stop(key != null ? uploadSucceeded : uploadFailed);
+		}
 
-		Path path = Paths.get(imgDir.getAbsolutePath(), file.getOriginalFilename());
+		uploadSize.record(file.getSize());
 
-		Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
-	}
+		thumbnailService.generate(key);
 
-	private void sanitizeDescription(Contact contact) {
+		return key;
+	}
 
-		if (contact.getDescription() != null) {
-			String clean = contact.getDescription().replaceAll("\\<.*?>", "");
-			contact.setDescription(clean);
-		}
+	private Timer uploadTimer(String outcome) {
+		return Timer.builder("contact.image.upload").tag("outcome", outcome).register(meterRegistry);
 	}
+
 	
 	
 	  // Mapping for Search Contacts page-Done 
@@ -369,24 +394,10 @@ public class UserController {
     public String searchContact(
             @RequestParam("query") String query,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            Principal principal,
+            @AuthenticationPrincipal UserPrincipal principal,
             Model model) {
 
-        // Get logged-in user email  
-        String email = principal.getName();
-
-        Optional<User> optionalUser = userRepository.findByEmail(email);
-
-        if (!optionalUser.isPresent()) {
-            return "redirect:/signin";
-        }
-
-        User user = optionalUser.get();
-
-        Pageable pageable = PageRequest.of(page, 5);
-
-        Page<Contact> results =
-                contactRepository.findByNameContainingIgnoreCaseAndUser(query, user, pageable);
+        Page<ContactSummary> results = contactService.searchContacts(principal.getId(), query, page, 5);
 
         model.addAttribute("contacts", results);
         model.addAttribute("currentPage", page);
@@ -395,6 +406,21 @@ public class UserController {
         return "normal/search_contact";
     }
 
+	/*
+	 * ========================= SEARCH SUGGESTIONS =========================
+	 */
+	@GetMapping("/search/suggest")
+	@ResponseBody
+	public List<ContactSuggestion> suggestContacts(@RequestParam("q") String query,
+			@RequestParam(value = "limit", defaultValue = "8") int limit,
+			@AuthenticationPrincipal UserPrincipal principal) {
+
+		if (query.isBlank()) {
+			return List.of();
+		}
 
+		return contactService.suggestContacts(principal.getId(), query,
+				Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+	}
 
 }
@@ -0,0 +1,54 @@
+package com.contactManager.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard figures for one owner, a read-only snapshot.
+ */
+public class ContactStats {
+
+	private final long total;
+	private final long withImage;
+	private final List<ContactSuggestion> recent;
+	private final Map<String, Long> topWork;
+	private final int workCount;
+
+	public ContactStats(long total, long withImage, List<ContactSuggestion> recent, Map<String, Long> topWork,
+			int workCount) {
+		this.total = total;
+		this.withImage = withImage;
+		this.recent = recent;
+		this.topWork = topWork;
+		this.workCount = workCount;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long getWithImage() {
+		return withImage;
+	}
+
+	/**
+	 * Latest added contacts, newest first.
+	 */
+	public List<ContactSuggestion> getRecent() {
+		return recent;
+	}
+
+	/**
+	 * Most common {@code work} values with their contact counts, largest first.
+	 */
+	public Map<String, Long> getTopWork() {
+		return topWork;
+	}
+
+	/**
+	 * Number of distinct {@code work} values.
+	 */
+	public int getWorkCount() {
+		return workCount;
+	}
+}
@@ -0,0 +1,29 @@
+package com.contactManager.dto;
+
+/**
+ * Typeahead entry: just the columns the suggestion list renders.
+ */
+public class ContactSuggestion {
+
+	private final int id;
+	private final String name;
+	private final String image;
+
+	public ContactSuggestion(int id, String name, String image) {
+		this.id = id;
+		this.name = name;
+		this.image = image;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getImage() {
+		return image;
+	}
+}
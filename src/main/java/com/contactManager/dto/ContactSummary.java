@@ -0,0 +1,55 @@
+package com.contactManager.dto;
+
+/**
+ * Row of the contact list and search tables. Leaves out the description and
+ * the owner, which those pages never render.
+ */
+public class ContactSummary {
+
+	private final int contact_id;
+	private final String name;
+	private final String secondName;
+	private final String work;
+	private final String email;
+	private final String phone;
+	private final String image;
+
+	public ContactSummary(int contact_id, String name, String secondName, String work, String email, String phone,
+			String image) {
+		this.contact_id = contact_id;
+		this.name = name;
+		this.secondName = secondName;
+		this.work = work;
+		this.email = email;
+		this.phone = phone;
+		this.image = image;
+	}
+
+	public int getContact_id() {
+		return contact_id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSecondName() {
+		return secondName;
+	}
+
+	public String getWork() {
+		return work;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getPhone() {
+		return phone;
+	}
+
+	public String getImage() {
+		return image;
+	}
+}
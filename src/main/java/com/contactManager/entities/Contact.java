@@ -2,16 +2,27 @@ package com.contactManager.entities;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+// updates only set the columns that changed
 @Entity
+@DynamicUpdate
 public class Contact {
 
+	// placeholder image of contacts without an upload
+	public static final String DEFAULT_IMAGE = "contact.png";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_seq")
+	@SequenceGenerator(name = "contact_seq", sequenceName = "contact_seq", allocationSize = 50)
 	private int contact_id;
 	private String name;
 	private String secondName;
@@ -22,9 +33,13 @@ public class Contact {
 	@Column(length = 5000)
 	private String description;
 
-	@ManyToOne
+	// owner queries go by user_id, the owner row itself is rarely needed
+	@ManyToOne(fetch = FetchType.LAZY)
 	private User user;
 
+	@Version
+	private int version;
+
 	public Contact() {
 
 	}
@@ -107,6 +122,14 @@ public class Contact {
 		this.description = description;
 	}
 
+	public int getVersion() {
+		return version;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
 	public User getUser() {
 		return user;
 	}
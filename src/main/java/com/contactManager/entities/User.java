@@ -16,10 +16,21 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 @Entity
 @Table(name="Users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
 
+	// second-level cache regions, sized in application.conf
+	public static final String CACHE_REGION = "users";
+	public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private int id;
@@ -27,6 +38,7 @@ public class User {
 	@NotEmpty(message = "Name should not be empty..!")
 	@Size(min = 3, max = 20, message = "min 3 and max 20 charecters are allowed")
 	private String name;
+	@NaturalId(mutable = true)
 	@Column(unique = true)
 	@Email
 	private String email;
@@ -0,0 +1,23 @@
+package com.contactManager.execution;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller, or single handler methods, whose handlers block on
+ * JDBC or disk I/O. With {@code app.execution.mode=async} they run on the
+ * request I/O executor instead of a Tomcat thread; in the other modes this
+ * has no effect.
+ *
+ * The login handlers are deliberately not marked: they change the security
+ * context, which must happen on the request thread. Neither are handlers that
+ * write to the {@code HttpServletResponse} themselves, such as the export.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BlockingHandler {
+}
@@ -0,0 +1,37 @@
+package com.contactManager.execution;
+
+import java.util.Locale;
+
+/**
+ * How requests are executed, chosen with {@code app.execution.mode}.
+ */
+public enum ExecutionMode {
+
+	/**
+	 * Tomcat's platform thread pool runs every request from start to end,
+	 * one blocked thread per request waiting on JDBC, SMTP or disk.
+	 */
+	PLATFORM,
+
+	/**
+	 * Tomcat runs requests on virtual threads, so a request blocked on I/O
+	 * holds no platform thread. Needs Java 21 or later at runtime.
+	 */
+	VIRTUAL,
+
+	/**
+	 * Handlers marked {@link BlockingHandler} run as async requests on a
+	 * dedicated I/O executor, which frees the Tomcat thread while they block.
+	 */
+	ASYNC;
+
+	public static ExecutionMode fromName(String name) {
+
+		try {
+			return valueOf(name.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(
+					"Unknown app.execution.mode '" + name + "', expected platform, virtual or async");
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.contactManager.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Applies {@code app.execution.mode}, see {@link ExecutionMode}. The default,
+ * {@code platform}, leaves Tomcat and Spring MVC as they are.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ExecutionModeConfiguration {
+
+	private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfiguration.class);
+
+	public ExecutionModeConfiguration(@Value("${app.execution.mode:platform}") String mode) {
+		// fails startup on a typo instead of quietly running in platform mode
+		log.info("Request execution mode: {}", ExecutionMode.fromName(mode));
+	}
+
+	/*
+	 * ========================= VIRTUAL THREADS =========================
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "app.execution.mode", havingValue = "virtual")
+	static class VirtualThreadExecution {
+
+		@Bean(destroyMethod = "shutdown")
+		ExecutorService requestVirtualThreadExecutor() {
+
+			// looked up at runtime so the build keeps working on Java 17
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(
+						"app.execution.mode=virtual needs Java 21 or later, running on " + Runtime.version());
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Could not create the virtual thread executor", e);
+			}
+		}
+
+		@Bean
+		TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+				ExecutorService requestVirtualThreadExecutor) {
+			return protocolHandler -> protocolHandler.setExecutor(requestVirtualThreadExecutor);
+		}
+	}
+
+	/*
+	 * ========================= ASYNC HANDLERS =========================
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "app.execution.mode", havingValue = "async")
+	static class AsyncHandlerExecution implements WebMvcConfigurer {
+
+		private final ThreadPoolTaskExecutor ioExecutor;
+
+		AsyncHandlerExecution(@Value("${app.execution.io-threads:64}") int ioThreads,
+				@Value("${app.execution.io-queue:1000}") int ioQueue) {
+
+			// bounded: once full, requests are rejected with 503 instead of piling up
+			ioExecutor = new ThreadPoolTaskExecutor();
+			ioExecutor.setThreadNamePrefix("request-io-");
+			ioExecutor.setCorePoolSize(ioThreads);
+			ioExecutor.setMaxPoolSize(ioThreads);
+			ioExecutor.setQueueCapacity(ioQueue);
+			ioExecutor.setWaitForTasksToCompleteOnShutdown(true);
+			ioExecutor.initialize();
+		}
+
+		@Bean(destroyMethod = "shutdown")
+		ThreadPoolTaskExecutor requestIoExecutor() {
+			return ioExecutor;
+		}
+
+		@Override
+		public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+			configurer.setTaskExecutor(ioExecutor);
+		}
+
+		@Bean
+		WebMvcRegistrations offloadingHandlerAdapterRegistration() {
+			return new WebMvcRegistrations() {
+				@Override
+				public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+					return new OffloadingHandlerAdapter();
+				}
+			};
+		}
+	}
+}
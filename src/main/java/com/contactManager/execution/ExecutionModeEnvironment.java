@@ -0,0 +1,34 @@
+package com.contactManager.execution;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Turns open-in-view off by default with {@code app.execution.mode=async}.
+ *
+ * Spring has Hibernate hold a connection from its first use until the entity
+ * manager closes, and with open-in-view that is only after the async dispatch.
+ * Between the handler finishing on the I/O executor and the dispatch getting a
+ * Tomcat thread, the request would keep a pooled connection doing nothing,
+ * and under load those parked requests drain the pool. Setting
+ * {@code spring.jpa.open-in-view} explicitly still wins.
+ */
+public class ExecutionModeEnvironment implements EnvironmentPostProcessor {
+
+	static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+
+		String mode = environment.getProperty("app.execution.mode", "platform");
+
+		if (ExecutionMode.fromName(mode) == ExecutionMode.ASYNC && !environment.containsProperty(OPEN_IN_VIEW)) {
+			environment.getPropertySources()
+					.addLast(new MapPropertySource("asyncExecutionMode", Map.of(OPEN_IN_VIEW, "false")));
+		}
+	}
+}
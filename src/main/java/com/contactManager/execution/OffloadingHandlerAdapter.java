@@ -0,0 +1,43 @@
+package com.contactManager.execution;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+/**
+ * Runs the body of {@link BlockingHandler} methods as a {@link Callable}, the
+ * same as if the method itself returned one, so the controllers keep their
+ * plain signatures.
+ *
+ * Arguments (principal, multipart files, model) are still resolved on the
+ * request thread. The result is handled after the async dispatch by the
+ * return value handler matching its runtime type, which for a view name or a
+ * {@code @ResponseBody} value is the handler the method would have had anyway.
+ */
+class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+	@Override
+	protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+
+		if (handlerMethod.hasMethodAnnotation(BlockingHandler.class)
+				|| handlerMethod.getBeanType().isAnnotationPresent(BlockingHandler.class)) {
+			return new OffloadedHandlerMethod(handlerMethod);
+		}
+
+		return super.createInvocableHandlerMethod(handlerMethod);
+	}
+
+	private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+
+		OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+			super(handlerMethod);
+		}
+
+		@Override
+		protected Object doInvoke(Object... args) throws Exception {
+			return (Callable<Object>) () -> OffloadedHandlerMethod.super.doInvoke(args);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.contactManager.helper;
+
+import java.util.regex.Pattern;
+
+import com.contactManager.entities.Contact;
+
+public class ContactSanitizer {
+
+	private static final Pattern HTML_TAG = Pattern.compile("<.*?>");
+
+	private ContactSanitizer() {
+
+	}
+
+	public static void sanitizeDescription(Contact contact) {
+
+		if (contact.getDescription() != null) {
+			String clean = HTML_TAG.matcher(contact.getDescription()).replaceAll("");
+			contact.setDescription(clean);
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package com.contactManager.imagestore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ImageStore} on a local directory, outside the classpath.
+ *
+ * Uploads are streamed to a temporary file while their SHA-256 is computed,
+ * then moved to {@code <root>/<first two hex chars>/<hash>.<ext>}. If that file
+ * already exists the upload is dropped and the existing copy is reused.
+ * Variants sit next to the original as {@code <hash>.<variant>.jpg}.
+ *
+ * The last-modified time of a stored file is its lease: it is set whenever an
+ * upload stores or reuses the file, and a file is only deleted once it is
+ * older than {@link #DELETE_GRACE}. Storing and deleting the same key hold the
+ * same lock, so a reuse either renews the lease before the delete looks at it
+ * or finds the file gone and writes it again.
+ */
+@Component
+public class FileSystemImageStore implements ImageStore {
+
+	private static final Logger log = LoggerFactory.getLogger(FileSystemImageStore.class);
+
+	private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
+
+	private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}\\.(jpg|jpeg|png|gif|webp)");
+
+	// a file stored or reused this recently is not deleted, its new reference may not be committed yet
+	private static final Duration DELETE_GRACE = Duration.ofMinutes(1);
+
+	private static final int LOCK_STRIPES = 64;
+
+	private final Path root;
+
+	private final Object[] locks = new Object[LOCK_STRIPES];
+
+	public FileSystemImageStore(@Value("${project.image}") String root) throws IOException {
+		this.root = Paths.get(root).toAbsolutePath().normalize();
+		Files.createDirectories(this.root.resolve("tmp"));
+		log.info("Image store directory: {}", this.root);
+
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	@Override
+	public String store(InputStream content, String originalFilename) throws IOException {
+
+		String extension = extension(originalFilename);
+		Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", "." + extension);
+
+		try {
+			MessageDigest digest = sha256();
+
+			try (InputStream in = new DigestInputStream(content, digest)) {
+				Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			String key = toHex(digest.digest()) + "." + extension;
+			Path target = path(key);
+
+			synchronized (lock(key)) {
+
+				if (Files.exists(target)) {
+					Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+					log.debug("Image {} already stored, reusing it", key);
+					return key;
+				}
+
+				Files.createDirectories(target.getParent());
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+				// the move keeps the time the temp file was created, start the lease now
+				Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+			}
+
+			log.info("Stored image {} ({} bytes)", key, Files.size(target));
+			return key;
+
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public Optional<Resource> load(String key) {
+
+		if (!isStoreKey(key)) {
+			return Optional.empty();
+		}
+
+		Path file = path(key);
+
+		return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+	}
+
+	@Override
+	public Optional<Resource> loadVariant(String key, ImageVariant variant) {
+
+		if (!isStoreKey(key)) {
+			return Optional.empty();
+		}
+
+		Path file = variantPath(key, variant);
+
+		return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+	}
+
+	@Override
+	public void storeVariant(String key, ImageVariant variant, byte[] jpeg) throws IOException {
+
+		Path target = variantPath(key, variant);
+		Path temp = Files.createTempFile(root.resolve("tmp"), "variant-", ".jpg");
+
+		try {
+			Files.write(temp, jpeg);
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+
+		if (!isStoreKey(key)) {
+			return;
+		}
+
+		Path file = path(key);
+
+		synchronized (lock(key)) {
+			try {
+				if (!Files.exists(file)) {
+					return;
+				}
+
+				if (!isIdle(file)) {
+					log.debug("Image {} was stored recently, leaving it to the sweep", key);
+					return;
+				}
+
+				Files.delete(file);
+
+				for (ImageVariant variant : ImageVariant.values()) {
+					Files.deleteIfExists(variantPath(key, variant));
+				}
+
+				log.info("Deleted unreferenced image {}", key);
+
+			} catch (IOException e) {
+				log.warn("Could not delete image {}", key, e);
+			}
+		}
+	}
+
+	@Override
+	public List<String> idleKeys() {
+
+		List<String> keys = new ArrayList<>();
+
+		try (Stream<Path> files = Files.walk(root, 2)) {
+			files.filter(file -> isStoreKey(file.getFileName().toString()) && isIdle(file))
+					.forEach(file -> keys.add(file.getFileName().toString()));
+		} catch (IOException e) {
+			log.warn("Could not list the stored images", e);
+		}
+
+		return keys;
+	}
+
+	@Override
+	public boolean isStoreKey(String key) {
+		return key != null && KEY_PATTERN.matcher(key).matches();
+	}
+
+	private boolean isIdle(Path file) {
+		try {
+			return Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(DELETE_GRACE));
+		} catch (IOException e) {
+			// gone or unreadable, there is nothing to delete
+			return false;
+		}
+	}
+
+	private Object lock(String key) {
+		return locks[Math.floorMod(key.hashCode(), locks.length)];
+	}
+
+	private Path path(String key) {
+		return root.resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	private Path variantPath(String key, ImageVariant variant) {
+		String hash = key.substring(0, key.indexOf('.'));
+		return root.resolve(key.substring(0, 2)).resolve(hash + "." + variant.getName() + ".jpg");
+	}
+
+	private static String extension(String filename) {
+
+		int dot = filename == null ? -1 : filename.lastIndexOf('.');
+		String extension = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+
+		if (!EXTENSIONS.contains(extension)) {
+			throw new IllegalArgumentException("Unsupported image type: " + filename);
+		}
+
+		return extension;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+
+		return hex.toString();
+	}
+}
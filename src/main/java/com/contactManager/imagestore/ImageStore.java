@@ -0,0 +1,53 @@
+package com.contactManager.imagestore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed storage for uploaded contact images.
+ *
+ * Images are keyed by the hash of their bytes plus the file extension, so two
+ * uploads of the same picture share one stored file whatever they were called
+ * on the client.
+ */
+public interface ImageStore {
+
+	/**
+	 * Streams an upload into the store.
+	 *
+	 * @return the content key to save on the contact
+	 */
+	String store(InputStream content, String originalFilename) throws IOException;
+
+	Optional<Resource> load(String key);
+
+	Optional<Resource> loadVariant(String key, ImageVariant variant);
+
+	/**
+	 * Saves a downscaled JPEG copy of the image stored under {@code key}.
+	 */
+	void storeVariant(String key, ImageVariant variant, byte[] jpeg) throws IOException;
+
+	/**
+	 * Removes a stored image and its variants. Callers must make sure nothing references the key
+	 * any more. An image stored or reused by an upload within the grace period is kept, the
+	 * reference that upload is saving may not be committed yet.
+	 */
+	void delete(String key);
+
+	/**
+	 * Keys of the stored images no upload has stored or reused within the
+	 * grace period, the candidates for {@link #delete}.
+	 */
+	List<String> idleKeys();
+
+	/**
+	 * Whether {@code key} has the shape of a key produced by this store, as
+	 * opposed to a legacy file name.
+	 */
+	boolean isStoreKey(String key);
+}
@@ -0,0 +1,44 @@
+package com.contactManager.imagestore;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Precomputed, downscaled copies of a stored image.
+ */
+public enum ImageVariant {
+
+	/** avatars in the contact list, search results and typeahead */
+	THUMB(80),
+
+	/** contact detail and update pages */
+	MEDIUM(400);
+
+	private final int maxSize;
+
+	ImageVariant(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Longest edge in pixels. Images already smaller are only re-encoded.
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public String getName() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+	public static Optional<ImageVariant> fromName(String name) {
+
+		for (ImageVariant variant : values()) {
+			if (variant.getName().equals(name)) {
+				return Optional.of(variant);
+			}
+		}
+
+		return Optional.empty();
+	}
+}
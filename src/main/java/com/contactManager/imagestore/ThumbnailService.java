@@ -0,0 +1,246 @@
+package com.contactManager.imagestore;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates the {@link ImageVariant}s of stored images on a small bounded
+ * executor, never on the request thread.
+ *
+ * When the queue is full a request is dropped. It is asked for again the next
+ * time a page needs the missing variant, and the original is served meanwhile.
+ */
+@Component
+public class ThumbnailService {
+
+	private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+	private static final float JPEG_QUALITY = 0.8f;
+
+	// keys that could not be decoded (e.g. webp, or too large), so they are not retried on every page view
+	private static final int MAX_UNSUPPORTED = 10_000;
+
+	private final ImageStore imageStore;
+
+	private final long maxPixels;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+	public ThumbnailService(ImageStore imageStore, @Value("${app.image.thumbnail.workers:2}") int workers,
+			@Value("${app.image.thumbnail.queue:100}") int queueSize,
+			@Value("${app.image.thumbnail.max-pixels:24000000}") long maxPixels) {
+
+		this.imageStore = imageStore;
+		this.maxPixels = maxPixels;
+
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), runnable -> {
+					Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				});
+	}
+
+	/**
+	 * Queues generation of any missing variants of {@code key}.
+	 */
+	public void generate(String key) {
+
+		if (!imageStore.isStoreKey(key) || unsupported.contains(key) || !inFlight.add(key)) {
+			return;
+		}
+
+		try {
+			executor.execute(() -> {
+				try {
+					generateMissing(key);
+				} finally {
+					inFlight.remove(key);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(key);
+			log.debug("Thumbnail queue full, skipping {} for now", key);
+		}
+	}
+
+	private void generateMissing(String key) {
+
+		Optional<Resource> original = imageStore.load(key);
+
+		if (original.isEmpty()) {
+			return;
+		}
+
+		try {
+			BufferedImage source = decode(key, original.get());
+
+			if (source == null) {
+				markUnsupported(key);
+				return;
+			}
+
+			for (ImageVariant variant : ImageVariant.values()) {
+				if (imageStore.loadVariant(key, variant).isEmpty()) {
+					imageStore.storeVariant(key, variant, toJpeg(scale(source, variant.getMaxSize())));
+				}
+			}
+
+			log.debug("Generated variants for image {}", key);
+
+		} catch (IOException | RuntimeException | OutOfMemoryError e) {
+			// an out of memory here is the failed allocation of this image's pixels
+			log.warn("Could not generate variants for image {}", key, e);
+			markUnsupported(key);
+		}
+	}
+
+	// null when no reader knows the format, or when the declared size is over the limit
+	private BufferedImage decode(String key, Resource original) throws IOException {
+
+		try (InputStream stream = original.getInputStream();
+				ImageInputStream in = ImageIO.createImageInputStream(stream)) {
+
+			Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+
+			if (readers == null || !readers.hasNext()) {
+				return null;
+			}
+
+			ImageReader reader = readers.next();
+
+			try {
+				reader.setInput(in, true, true);
+
+				// read from the header, before any pixel memory is allocated
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+
+				if ((long) width * height > maxPixels) {
+					log.info("Image {} is {}x{}, over the limit of {} pixels", key, width, height, maxPixels);
+					return null;
+				}
+
+				return reader.read(0);
+
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private void markUnsupported(String key) {
+
+		if (unsupported.size() < MAX_UNSUPPORTED) {
+			unsupported.add(key);
+		}
+
+		log.info("No variants for image {}, serving the original only", key);
+	}
+
+	/*
+	 * ========================= IMAGE OPERATIONS =========================
+	 */
+
+	// halves the image until close to the target, which keeps bilinear scaling sharp
+	static BufferedImage scale(BufferedImage source, int maxSize) {
+
+		int width = source.getWidth();
+		int height = source.getHeight();
+		double ratio = Math.min(1.0, (double) maxSize / Math.max(width, height));
+
+		int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+		int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+		BufferedImage current = source;
+
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+
+			BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = next.createGraphics();
+
+			try {
+				// transparent areas become white, JPEG has no alpha channel
+				graphics.setColor(Color.WHITE);
+				graphics.fillRect(0, 0, width, height);
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(current, 0, 0, width, height, null);
+			} finally {
+				graphics.dispose();
+			}
+
+			current = next;
+
+		} while (width != targetWidth || height != targetHeight);
+
+		return current;
+	}
+
+	static byte[] toJpeg(BufferedImage image) throws IOException {
+
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(JPEG_QUALITY);
+
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+
+		return bytes.toByteArray();
+	}
+
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
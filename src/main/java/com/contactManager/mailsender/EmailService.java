@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,27 +12,23 @@ public class EmailService {
 	private static final Logger log = LoggerFactory.getLogger(EmailService.class);
 
 	@Autowired
-	private JavaMailSender mailSender;
+	private MailOutbox mailOutbox;
 
-	public boolean sendEmail(String to, String subject, String message) {
+	/**
+	 * Hands the message to the {@link MailOutbox} and returns without waiting
+	 * for SMTP. Delivery failures are retried and logged by the outbox.
+	 *
+	 * @return false when the outbox is full
+	 */
+	public boolean queueEmail(String to, String subject, String message) {
 
-		log.info("Preparing to send email to: {}", to);
+		log.info("Queueing email to: {}", to);
 
-		try {
-			SimpleMailMessage mail = new SimpleMailMessage();
-			mail.setTo(to);
-			mail.setSubject(subject);
-			mail.setText(message);
+		SimpleMailMessage mail = new SimpleMailMessage();
+		mail.setTo(to);
+		mail.setSubject(subject);
+		mail.setText(message);
 
-			mailSender.send(mail);
-
-			log.info("Email sent successfully to: {}", to);
-
-			return true;
-
-		} catch (Exception e) {
-			log.error("Failed to send email to: {}", to, e);
-			return false;
-		}
+		return mailOutbox.enqueue(mail);
 	}
 }
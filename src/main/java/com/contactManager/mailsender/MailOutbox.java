@@ -0,0 +1,239 @@
+package com.contactManager.mailsender;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, in-memory outbox that delivers mail off the request thread.
+ *
+ * Messages wait in a fixed-size queue drained by a small worker pool. A failed
+ * send is retried with exponential backoff up to {@code maxAttempts} times. When
+ * the outbox is full, {@link #enqueue(SimpleMailMessage)} rejects the message
+ * straight away instead of blocking the caller.
+ */
+@Component
+public class MailOutbox {
+
+	private static final Logger log = LoggerFactory.getLogger(MailOutbox.class);
+
+	private final JavaMailSender mailSender;
+
+	private final int capacity;
+
+	private final int maxAttempts;
+
+	private final long initialBackoffMillis;
+
+	private final ThreadPoolExecutor workers;
+
+	private final ScheduledExecutorService retryScheduler;
+
+	// messages queued, being sent, or waiting for a retry
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicLong enqueued = new AtomicLong();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+
+	// SMTP round trips, successful or not, and the time spent in them
+	private final AtomicLong sendAttempts = new AtomicLong();
+	private final LongAdder sendNanos = new LongAdder();
+
+	public MailOutbox(JavaMailSender mailSender, @Value("${app.mail.outbox.capacity:500}") int capacity,
+			@Value("${app.mail.outbox.workers:2}") int workerCount,
+			@Value("${app.mail.outbox.max-attempts:4}") int maxAttempts,
+			@Value("${app.mail.outbox.initial-backoff-ms:1000}") long initialBackoffMillis) {
+
+		this.mailSender = mailSender;
+		this.capacity = capacity;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+
+		this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacity), threadFactory("mail-outbox-"));
+		this.retryScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("mail-outbox-retry-"));
+	}
+
+	/**
+	 * Queues a message for delivery.
+	 *
+	 * @return false when the outbox is full and the message was dropped
+	 */
+	public boolean enqueue(SimpleMailMessage message) {
+
+		if (pending.incrementAndGet() > capacity) {
+			pending.decrementAndGet();
+			rejected.incrementAndGet();
+			log.warn("Mail outbox full ({} pending), rejecting mail to {}", capacity, recipients(message));
+			return false;
+		}
+
+		try {
+			workers.execute(() -> deliver(message, 1));
+		} catch (RejectedExecutionException e) {
+			pending.decrementAndGet();
+			rejected.incrementAndGet();
+			log.warn("Mail outbox rejected mail to {}", recipients(message));
+			return false;
+		}
+
+		enqueued.incrementAndGet();
+		return true;
+	}
+
+	private void deliver(SimpleMailMessage message, int attempt) {
+
+		long start = System.nanoTime();
+
+		try {
+			mailSender.send(message);
+			recordSend(start);
+
+			pending.decrementAndGet();
+			sent.incrementAndGet();
+
+			log.info("Email sent successfully to: {} (attempt {})", recipients(message), attempt);
+
+		} catch (Exception e) {
+
+			recordSend(start);
+
+			if (attempt >= maxAttempts) {
+				pending.decrementAndGet();
+				failed.incrementAndGet();
+				log.error("Giving up on email to: {} after {} attempts", recipients(message), attempt, e);
+				return;
+			}
+
+			long backoff = initialBackoffMillis << (attempt - 1);
+			retried.incrementAndGet();
+
+			log.warn("Email to {} failed (attempt {}), retrying in {} ms: {}", recipients(message), attempt, backoff,
+					e.getMessage());
+
+			scheduleRetry(message, attempt + 1, backoff);
+		}
+	}
+
+	private void recordSend(long startNanos) {
+		sendAttempts.incrementAndGet();
+		sendNanos.add(System.nanoTime() - startNanos);
+	}
+
+	private void scheduleRetry(SimpleMailMessage message, int attempt, long delayMillis) {
+
+		try {
+			retryScheduler.schedule(() -> {
+				try {
+					workers.execute(() -> deliver(message, attempt));
+				} catch (RejectedExecutionException e) {
+					// workers saturated, count this as a failed attempt and back off again
+					deliverLater(message, attempt);
+				}
+			}, delayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			pending.decrementAndGet();
+			failed.incrementAndGet();
+			log.error("Mail outbox shut down, dropping email to: {}", recipients(message));
+		}
+	}
+
+	private void deliverLater(SimpleMailMessage message, int attempt) {
+
+		if (attempt >= maxAttempts) {
+			pending.decrementAndGet();
+			failed.incrementAndGet();
+			log.error("Giving up on email to: {}, outbox workers saturated", recipients(message));
+			return;
+		}
+
+		scheduleRetry(message, attempt + 1, initialBackoffMillis << attempt);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+
+		retryScheduler.shutdownNow();
+		workers.shutdown();
+
+		try {
+			if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+				log.warn("Mail outbox stopped with {} messages still queued", workers.getQueue().size());
+				workers.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * ========================= METRICS =========================
+	 */
+
+	public int getPending() {
+		return pending.get();
+	}
+
+	public long getEnqueued() {
+		return enqueued.get();
+	}
+
+	public long getSent() {
+		return sent.get();
+	}
+
+	public long getRetried() {
+		return retried.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public long getSendAttempts() {
+		return sendAttempts.get();
+	}
+
+	public long getSendNanos() {
+		return sendNanos.sum();
+	}
+
+	private static String recipients(SimpleMailMessage message) {
+		return message.getTo() == null ? "" : String.join(",", message.getTo());
+	}
+
+	private static ThreadFactory threadFactory(String prefix) {
+
+		AtomicInteger counter = new AtomicInteger();
+
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
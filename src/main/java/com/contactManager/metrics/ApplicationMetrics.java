@@ -0,0 +1,114 @@
+package com.contactManager.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.contactManager.Securityconfig.OtpService;
+import com.contactManager.entities.User;
+import com.contactManager.imagestore.ThumbnailService;
+import com.contactManager.mailsender.MailOutbox;
+import com.contactManager.pagecache.ContactListFragments;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Publishes the counters our own components already keep, so they show up
+ * next to the Actuator, Spring Data and Hibernate metrics on
+ * {@code /actuator/prometheus}. Those components stay free of Micrometer.
+ *
+ * Work that is timed where it happens registers its own meters instead:
+ * password hashing in {@code PasswordHashingService} and image uploads in
+ * {@code UserController}.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+	@Autowired
+	private MailOutbox mailOutbox;
+
+	@Autowired
+	private ThumbnailService thumbnailService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private OtpService otpService;
+
+	@Autowired
+	private ContactListFragments contactListFragments;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		/*
+		 * ========================= MAIL =========================
+		 */
+		Gauge.builder("mail.outbox.pending", mailOutbox, MailOutbox::getPending)
+				.description("Mails queued, being sent or waiting for a retry").register(registry);
+
+		mailCounter(registry, "enqueued", MailOutbox::getEnqueued);
+		mailCounter(registry, "sent", MailOutbox::getSent);
+		mailCounter(registry, "retried", MailOutbox::getRetried);
+		mailCounter(registry, "failed", MailOutbox::getFailed);
+		mailCounter(registry, "rejected", MailOutbox::getRejected);
+
+		FunctionTimer.builder("mail.send", mailOutbox, MailOutbox::getSendAttempts, MailOutbox::getSendNanos,
+				TimeUnit.NANOSECONDS).description("SMTP send attempts, successful or not").register(registry);
+
+		/*
+		 * ========================= LOGIN =========================
+		 */
+		Gauge.builder("otp.pending", otpService, OtpService::getPendingCount)
+				.description("One-time passwords issued and not yet used or expired").register(registry);
+
+		/*
+		 * ========================= USER CACHE =========================
+		 */
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		cacheHitRatio(registry, statistics, User.CACHE_REGION);
+		cacheHitRatio(registry, statistics, User.NATURAL_ID_CACHE_REGION);
+
+		/*
+		 * ========================= IMAGES =========================
+		 */
+		Gauge.builder("image.thumbnail.queue", thumbnailService, ThumbnailService::getQueueSize)
+				.description("Images waiting for thumbnail generation").register(registry);
+
+		/*
+		 * ========================= CONTACT PAGES =========================
+		 */
+		CaffeineCacheMetrics.monitor(registry, contactListFragments.getCache(), "contact.list.fragments");
+	}
+
+	private void mailCounter(MeterRegistry registry, String outcome,
+			ToDoubleFunction<MailOutbox> count) {
+
+		FunctionCounter.builder("mail.outbox.messages", mailOutbox, count).tag("outcome", outcome).register(registry);
+	}
+
+	// hits / (hits + misses) since startup, NaN before the first lookup
+	private void cacheHitRatio(MeterRegistry registry, Statistics statistics, String region) {
+
+		Gauge.builder("cache.region.hit.ratio", statistics, stats -> {
+			CacheRegionStatistics regionStats = stats.getDomainDataRegionStatistics(region);
+			long hits = regionStats.getHitCount();
+			long lookups = hits + regionStats.getMissCount();
+			return lookups == 0 ? Double.NaN : (double) hits / lookups;
+		}).tag("region", region).description("Second-level cache hit ratio").register(registry);
+	}
+}
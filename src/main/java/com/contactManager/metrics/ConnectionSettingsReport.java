@@ -0,0 +1,148 @@
+package com.contactManager.metrics;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.contactManager.execution.ExecutionMode;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Logs the effective connection pool, request thread and JDBC batching
+ * settings once the application is up, and warns about combinations known to
+ * hurt under load, such as fewer connections than request threads.
+ */
+@Component
+public class ConnectionSettingsReport {
+
+	private static final Logger log = LoggerFactory.getLogger(ConnectionSettingsReport.class);
+
+	private static final String ORACLE_STATEMENT_CACHE = "oracle.jdbc.implicitStatementCacheSize";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ServerProperties serverProperties;
+
+	@Autowired
+	private JpaProperties jpaProperties;
+
+	@Value("${app.execution.mode:platform}")
+	private String executionMode;
+
+	@Value("${app.execution.io-threads:64}")
+	private int ioThreads;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void report() {
+
+		Map<String, Object> hibernate = entityManagerFactory.getProperties();
+
+		ExecutionMode mode = ExecutionMode.fromName(executionMode);
+		int requestThreads = serverProperties.getTomcat().getThreads().getMax();
+		boolean openInView = jpaProperties.getOpenInView() == null || jpaProperties.getOpenInView();
+		int batchSize = intSetting(hibernate, "hibernate.jdbc.batch_size");
+		boolean orderInserts = booleanSetting(hibernate, "hibernate.order_inserts");
+		boolean orderUpdates = booleanSetting(hibernate, "hibernate.order_updates");
+
+		log.info("Database: {}", describeDatabase());
+		log.info("Execution mode {}, request threads: {} (accept queue {}), open-in-view: {}", mode,
+				mode == ExecutionMode.VIRTUAL ? "virtual" : requestThreads, serverProperties.getTomcat().getAcceptCount(),
+				openInView);
+		log.info("Hibernate: batch size {}, order inserts {}, order updates {}, fetch size {}", batchSize, orderInserts,
+				orderUpdates, hibernate.getOrDefault("hibernate.jdbc.fetch_size", "driver default"));
+
+		if (!(dataSource instanceof HikariDataSource)) {
+			log.warn("DataSource is a {}, pool settings are not checked", dataSource.getClass().getName());
+			return;
+		}
+
+		HikariDataSource pool = (HikariDataSource) dataSource;
+
+		log.info("Connection pool {}: max {}, min idle {}, connection timeout {} ms, driver properties {}",
+				pool.getPoolName(), pool.getMaximumPoolSize(), pool.getMinimumIdle(), pool.getConnectionTimeout(),
+				pool.getDataSourceProperties());
+
+		/*
+		 * ========================= CHECKS =========================
+		 */
+		// the threads that run blocking handlers, and so hold connections
+		int handlerThreads = mode == ExecutionMode.ASYNC ? ioThreads : requestThreads;
+
+		if (mode == ExecutionMode.ASYNC && openInView) {
+			log.warn("Open-in-view with async handlers keeps each finished request's connection until its dispatch "
+					+ "gets a request thread, the pool can run dry under load");
+		}
+
+		if (mode == ExecutionMode.VIRTUAL) {
+			log.info("Request threads are unbounded, the connection pool ({}) caps concurrent database work",
+					pool.getMaximumPoolSize());
+		} else if (pool.getMaximumPoolSize() < handlerThreads) {
+			log.warn("Connection pool ({}) is smaller than the handler thread count ({}){}; requests will wait up to {} ms "
+					+ "for a connection under load", pool.getMaximumPoolSize(), handlerThreads,
+					openInView ? " and open-in-view lets every request hold one" : "", pool.getConnectionTimeout());
+		}
+
+		if (batchSize <= 1) {
+			log.warn("JDBC batching is off (hibernate.jdbc.batch_size={}), imports insert row by row", batchSize);
+		} else if (!orderInserts || !orderUpdates) {
+			log.warn("hibernate.jdbc.batch_size is {} but order_inserts={} and order_updates={}, "
+					+ "mixed statements will break batches up", batchSize, orderInserts, orderUpdates);
+		}
+
+		String jdbcUrl = pool.getJdbcUrl();
+
+		if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:oracle:")
+				&& !pool.getDataSourceProperties().containsKey(ORACLE_STATEMENT_CACHE)) {
+			log.warn("Oracle statement cache is not configured, set "
+					+ "spring.datasource.hikari.data-source-properties.{}", ORACLE_STATEMENT_CACHE);
+		}
+	}
+
+	private String describeDatabase() {
+
+		try (Connection connection = dataSource.getConnection()) {
+
+			DatabaseMetaData metaData = connection.getMetaData();
+
+			return metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion() + ", driver "
+					+ metaData.getDriverName() + " " + metaData.getDriverVersion();
+
+		} catch (SQLException e) {
+			log.warn("Could not read database metadata", e);
+			return "unknown";
+		}
+	}
+
+	private static int intSetting(Map<String, Object> settings, String name) {
+
+		Object value = settings.get(name);
+
+		return value == null ? 0 : Integer.parseInt(value.toString().trim());
+	}
+
+	private static boolean booleanSetting(Map<String, Object> settings, String name) {
+
+		Object value = settings.get(name);
+
+		return value != null && Boolean.parseBoolean(value.toString().trim());
+	}
+}
@@ -0,0 +1,120 @@
+package com.contactManager.pagecache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.ISpringTemplateEngine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Rendered contact list tables (the {@code list} fragment of
+ * {@code normal/contact_list}), keyed by owner, {@link ContactListVersions
+ * stamp}, page and cursor.
+ *
+ * A write moves the stamp on, so entries are never invalidated, the ones for
+ * older stamps are simply no longer asked for and age out. The cache is
+ * bounded by the size of the rendered HTML.
+ */
+@Component
+public class ContactListFragments {
+
+	static final String TEMPLATE = "normal/contact_list";
+
+	static final Set<String> FRAGMENT = Set.of("list");
+
+	private final ISpringTemplateEngine templateEngine;
+
+	private final Cache<Key, String> fragments;
+
+	public ContactListFragments(ISpringTemplateEngine templateEngine,
+			@Value("${app.contact-pages.fragment-cache-kb:16384}") long maxKilobytes,
+			@Value("${app.contact-pages.fragment-ttl-minutes:30}") long ttlMinutes) {
+
+		this.templateEngine = templateEngine;
+		this.fragments = Caffeine.newBuilder()
+				// chars take two bytes
+				.maximumWeight(maxKilobytes * 1024)
+				.<Key, String>weigher((key, html) -> 2 * html.length())
+				.expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the cached table, or renders it from {@code model} (only called
+	 * on a miss, so the contact queries are skipped on a hit).
+	 */
+	public String get(Key key, Supplier<Map<String, Object>> model, HttpServletRequest request,
+			HttpServletResponse response) {
+
+		return fragments.get(key, k -> render(model.get(), request, response));
+	}
+
+	/**
+	 * Renders without caching, for requests that came without a stamp.
+	 */
+	public String render(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) {
+
+		WebContext context = new WebContext(request, response, request.getServletContext(), request.getLocale(), model);
+
+		return templateEngine.process(TEMPLATE, FRAGMENT, context);
+	}
+
+	public Cache<Key, String> getCache() {
+		return fragments;
+	}
+
+	public static final class Key {
+
+		private final int ownerId;
+
+		private final long version;
+
+		private final int page;
+
+		private final Integer afterId;
+
+		private final Integer beforeId;
+
+		public Key(int ownerId, long version, int page, Integer afterId, Integer beforeId) {
+			this.ownerId = ownerId;
+			this.version = version;
+			this.page = page;
+			this.afterId = afterId;
+			this.beforeId = beforeId;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) {
+				return true;
+			}
+
+			if (!(other instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) other;
+
+			return ownerId == key.ownerId && version == key.version && page == key.page
+					&& Objects.equals(afterId, key.afterId) && Objects.equals(beforeId, key.beforeId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ownerId, version, page, afterId, beforeId);
+		}
+	}
+}
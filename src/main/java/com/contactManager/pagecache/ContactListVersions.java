@@ -0,0 +1,65 @@
+package com.contactManager.pagecache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A per-owner stamp that moves forward with every write to the owner's
+ * contacts, so anything derived from them (a page's ETag, a rendered list)
+ * can be keyed by it instead of being invalidated.
+ *
+ * The stamp is the {@code users.contacts_version} column, so every node sees
+ * the same value. It is deliberately not mapped on {@code User}: entity
+ * updates would write back a stale copy, and a JPQL update would evict the
+ * whole user cache region.
+ *
+ * Readers take the stamp before reading the contacts, writers bump it in the
+ * same transaction as their write or after it commits. Either way a reader
+ * can pair an older stamp with newer contacts, never the other way round.
+ *
+ * The per-node copies of contact data (search index, stats) remember the
+ * stamp they were loaded at and reload an owner once it has moved on, which
+ * is how writes made through another node reach them.
+ */
+@Component
+public class ContactListVersions {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	public long current(int ownerId) {
+
+		Long version = jdbcTemplate.queryForObject("select contacts_version from users where id = ?", Long.class,
+				ownerId);
+
+		return version == null ? 0 : version;
+	}
+
+	// every owner's stamp, read before a full reload of per-node data
+	public Map<Integer, Long> currentAll() {
+
+		Map<Integer, Long> versions = new HashMap<>();
+
+		jdbcTemplate.query("select id, contacts_version from users",
+				row -> { versions.put(row.getInt(1), row.getLong(2)); });
+
+		return versions;
+	}
+
+	/**
+	 * @return the stamp of this write; the row stays locked until the
+	 *         transaction ends, so no other write can share or skip it
+	 */
+	@Transactional
+	public long bump(int ownerId) {
+
+		jdbcTemplate.update("update users set contacts_version = contacts_version + 1 where id = ?", ownerId);
+
+		return current(ownerId);
+	}
+}
@@ -0,0 +1,19 @@
+package com.contactManager.pagecache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+public class ContactPageConfiguration implements WebMvcConfigurer {
+
+	@Autowired
+	private ContactListVersions versions;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new ContactPageInterceptor(versions)).addPathPatterns("/user/show_contacts/*",
+				"/user/*/contact");
+	}
+}
@@ -0,0 +1,72 @@
+package com.contactManager.pagecache;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.contactManager.Securityconfig.UserPrincipal;
+
+/**
+ * Conditional GETs for the contact list and contact detail pages.
+ *
+ * Both pages only change when the owner's contacts do, so their weak ETag is
+ * built from the owner's {@link ContactListVersions stamp}. A browser
+ * revalidating an unchanged page gets a 304 before the handler runs, with no
+ * contact query and no rendering. The stamp is left in the request as
+ * {@link #VERSION_ATTRIBUTE} for the handler to key cached fragments by.
+ *
+ * Runs before the handler is offloaded in {@code app.execution.mode=async},
+ * and is skipped on the async dispatch that follows.
+ */
+public class ContactPageInterceptor implements HandlerInterceptor {
+
+	public static final String VERSION_ATTRIBUTE = "contactListVersion";
+
+	// pages rendered by an earlier start (maybe older templates) are not revalidated
+	private static final String STARTED = Long.toString(System.currentTimeMillis(), 36);
+
+	private final ContactListVersions versions;
+
+	public ContactPageInterceptor(ContactListVersions versions) {
+		this.versions = versions;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+		if (request.getDispatcherType() == DispatcherType.ASYNC || authentication == null
+				|| !(authentication.getPrincipal() instanceof UserPrincipal)) {
+			return true;
+		}
+
+		UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+		long version = versions.current(principal.getId());
+
+		request.setAttribute(VERSION_ATTRIBUTE, version);
+
+		// a pending flash message is shown, then removed, by the page
+		HttpSession session = request.getSession(false);
+
+		if (session != null && session.getAttribute("message") != null) {
+			return true;
+		}
+
+		// private: the page belongs to the logged-in user; no-cache: always revalidate
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+
+		// the pages show nothing of the user beyond their contacts, the id keeps users' tags apart
+		String etag = "W/\"" + principal.getId() + "-" + version + "-" + STARTED + "\"";
+
+		return !new ServletWebRequest(request, response).checkNotModified(etag);
+	}
+}
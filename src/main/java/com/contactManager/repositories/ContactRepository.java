@@ -1,20 +1,110 @@
 package com.contactManager.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.contactManager.dto.ContactSuggestion;
+import com.contactManager.dto.ContactSummary;
 import com.contactManager.entities.Contact;
 import com.contactManager.entities.User;
+import com.contactManager.search.IndexedContact;
 
 public interface ContactRepository extends JpaRepository<Contact, Integer> {
 
 	@Query("from Contact as d where d.user.id =:userId")
 	public Page<Contact> findContactByUser(@Param("userId") int userid, Pageable pageable);
 
+	String SUMMARY_SELECT = "select new com.contactManager.dto.ContactSummary(d.contact_id, d.name, d.secondName, "
+			+ "d.work, d.email, d.phone, d.image) from Contact as d ";
+
+	@Query(SUMMARY_SELECT + "where d.user.id =:userId order by d.contact_id")
+	public Slice<ContactSummary> findContactSummariesByUser(@Param("userId") int userId, Pageable pageable);
+
+	@Query(SUMMARY_SELECT + "where d.user.id =:userId and d.contact_id >:afterId order by d.contact_id")
+	public Slice<ContactSummary> findContactSummariesAfter(@Param("userId") int userId,
+			@Param("afterId") int afterId, Pageable pageable);
+
+	@Query(SUMMARY_SELECT + "where d.user.id =:userId and d.contact_id <:beforeId order by d.contact_id desc")
+	public Slice<ContactSummary> findContactSummariesBefore(@Param("userId") int userId,
+			@Param("beforeId") int beforeId, Pageable pageable);
+
+	@Query(SUMMARY_SELECT + "where d.user.id =:userId and d.contact_id in :contactIds")
+	public List<ContactSummary> findOwnedContactSummaries(@Param("userId") int userId,
+			@Param("contactIds") Collection<Integer> contactIds);
+
+	@Query(value = SUMMARY_SELECT + "where d.user.id =:userId and lower(d.name) like :pattern",
+			countQuery = "select count(d) from Contact as d where d.user.id =:userId and lower(d.name) like :pattern")
+	public Page<ContactSummary> findContactSummariesByName(@Param("userId") int userId,
+			@Param("pattern") String pattern, Pageable pageable);
+
+	@Query("select count(d) from Contact as d where d.user.id =:userId")
+	public long countContactsByUser(@Param("userId") int userId);
+
+	@Query("select count(d) from Contact as d where d.user.id =:userId and d.image is not null "
+			+ "and d.image <> :defaultImage")
+	public long countContactsWithImage(@Param("userId") int userId, @Param("defaultImage") String defaultImage);
+
+	// rows of (work, count)
+	@Query("select d.work, count(d) from Contact as d where d.user.id =:userId group by d.work")
+	public List<Object[]> countContactsByWork(@Param("userId") int userId);
+
+	@Query("select new com.contactManager.dto.ContactSuggestion(d.contact_id, d.name, d.image) from Contact as d "
+			+ "where d.user.id =:userId order by d.contact_id desc")
+	public List<ContactSuggestion> findRecentSuggestions(@Param("userId") int userId, Pageable pageable);
+
 	Page<Contact> findByNameContainingAndUser(String name, User user, Pageable pageable);
 	Page<Contact> findByNameContainingIgnoreCaseAndUser(String name,User user,Pageable pageable);
 
+	@Query("from Contact as d where d.contact_id =:contactId and d.user.id =:userId")
+	public Optional<Contact> findOwnedContact(@Param("contactId") int contactId, @Param("userId") int userId);
+
+	@Query(SUMMARY_SELECT + "where d.contact_id =:contactId and d.user.id =:userId")
+	public Optional<ContactSummary> findOwnedContactSummary(@Param("contactId") int contactId,
+			@Param("userId") int userId);
+
+	public long countByImage(String image);
+
+	@Query("select new com.contactManager.dto.ContactSuggestion(d.contact_id, d.name, d.image) from Contact as d "
+			+ "where d.user.id =:userId and d.contact_id in :contactIds")
+	public List<ContactSuggestion> findSuggestions(@Param("userId") int userId,
+			@Param("contactIds") Collection<Integer> contactIds);
+
+	@Query("select new com.contactManager.dto.ContactSuggestion(d.contact_id, d.name, d.image) from Contact as d "
+			+ "where d.user.id =:userId and lower(d.name) like :prefix order by d.name")
+	public List<ContactSuggestion> findSuggestionsByNamePrefix(@Param("userId") int userId,
+			@Param("prefix") String prefix, Pageable pageable);
+
+	@Query("select new com.contactManager.search.IndexedContact(d.contact_id, d.user.id, d.name, d.secondName, "
+			+ "d.work, d.email, d.phone) from Contact as d where d.contact_id >:afterId order by d.contact_id")
+	public List<IndexedContact> findIndexedContactsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	@Query("select new com.contactManager.search.IndexedContact(d.contact_id, d.user.id, d.name, d.secondName, "
+			+ "d.work, d.email, d.phone) from Contact as d where d.user.id =:userId")
+	public List<IndexedContact> findIndexedContactsByUser(@Param("userId") int userId);
+
+	// cursor for exports: rows arrive in fetch-size chunks instead of one list
+	@QueryHints({ @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+			@QueryHint(name = "org.hibernate.readOnly", value = "true") })
+	@Query("from Contact as d where d.user.id =:userId order by d.contact_id")
+	public Stream<Contact> streamContactsByUser(@Param("userId") int userId);
+
+	@Transactional
+	@Modifying
+	@Query("delete from Contact as d where d.contact_id =:contactId and d.user.id =:userId")
+	public int deleteOwnedContact(@Param("contactId") int contactId, @Param("userId") int userId);
+
 }
@@ -1,13 +1,11 @@
 package com.contactManager.repositories;
 
-import java.util.List;
-import java.util.Optional;
-
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.contactManager.entities.User;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
-
-	public Optional<User> findByEmail(String email);
+/**
+ * {@code findByEmail} is implemented in {@link UserRepositoryCustomImpl}.
+ */
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
 }
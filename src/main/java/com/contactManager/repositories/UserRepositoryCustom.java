@@ -0,0 +1,14 @@
+package com.contactManager.repositories;
+
+import java.util.Optional;
+
+import com.contactManager.entities.User;
+
+public interface UserRepositoryCustom {
+
+	/**
+	 * Loads a user by the {@code email} natural id, answered from the
+	 * second-level cache when the email has been looked up before.
+	 */
+	public Optional<User> findByEmail(String email);
+}
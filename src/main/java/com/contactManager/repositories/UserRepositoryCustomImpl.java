@@ -0,0 +1,35 @@
+package com.contactManager.repositories;
+
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.contactManager.entities.User;
+
+/**
+ * Replaces the derived {@code findByEmail} query, which Hibernate never
+ * caches, with a natural-id load. The email → id mapping comes from the
+ * {@code users-by-email} region and the row from the {@code users} region, so
+ * a warm lookup does not reach the database.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// a session must stay open for the load, also when called from the security filter
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<User> findByEmail(String email) {
+
+		if (email == null) {
+			return Optional.empty();
+		}
+
+		return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+	}
+}
@@ -0,0 +1,147 @@
+package com.contactManager.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.pagecache.ContactListVersions;
+import com.contactManager.repositories.ContactRepository;
+
+/**
+ * In-process inverted index over name, second name, work, email and phone,
+ * partitioned per owner.
+ *
+ * The index is rebuilt from the database once the application is ready and
+ * kept in sync by {@code ContactServiceImpl} on every contact write made
+ * through this node. Until the rebuild finishes {@link #isReady()} is false
+ * and callers should fall back to a database query.
+ *
+ * Writes made through other nodes are picked up on search: an owner whose
+ * {@link ContactListVersions stamp} has moved past the one their index was
+ * loaded at is reloaded first.
+ */
+@Component
+public class ContactSearchIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactSearchIndex.class);
+
+	private static final int REBUILD_BATCH_SIZE = 1000;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ContactListVersions versions;
+
+	private final Map<Integer, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+
+		long start = System.currentTimeMillis();
+		int lastId = 0;
+		long indexed = 0;
+
+		// owners added after this read start at -1, so their first search reloads them
+		Map<Integer, Long> stamps = versions.currentAll();
+
+		owners.clear();
+
+		while (true) {
+
+			List<IndexedContact> batch = contactRepository.findIndexedContactsAfter(lastId,
+					PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+			for (IndexedContact contact : batch) {
+				owners.computeIfAbsent(contact.getOwnerId(), id -> new OwnerIndex(stamps.getOrDefault(id, -1L)))
+						.put(contact);
+				lastId = contact.getContactId();
+			}
+
+			indexed += batch.size();
+
+			if (batch.size() < REBUILD_BATCH_SIZE) {
+				break;
+			}
+		}
+
+		ready = true;
+
+		log.info("Contact search index rebuilt: {} contacts for {} owners in {} ms", indexed, owners.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/*
+	 * ========================= WRITE HOOKS =========================
+	 */
+
+	// version: the owner's stamp after the write; owners not loaded here are skipped
+
+	public void index(int ownerId, long version, List<Contact> contacts) {
+
+		OwnerIndex index = owners.get(ownerId);
+
+		if (index != null) {
+			index.update(version,
+					changed -> contacts.forEach(contact -> changed.put(IndexedContact.of(ownerId, contact))));
+		}
+	}
+
+	public void remove(int ownerId, long version, int contactId) {
+
+		OwnerIndex index = owners.get(ownerId);
+
+		if (index != null) {
+			index.update(version, changed -> changed.remove(contactId));
+		}
+	}
+
+	/**
+	 * Ranked prefix search. Every query token has to prefix-match a token of
+	 * one of the indexed fields; name matches rank above second name, email,
+	 * work and phone, and whole-token matches rank above partial ones.
+	 */
+	public SearchHits search(int ownerId, String query, int page, int size) {
+
+		List<String> tokens = OwnerIndex.tokenize(query);
+
+		if (tokens.isEmpty()) {
+			return new SearchHits(List.of(), 0);
+		}
+
+		return currentIndex(ownerId).search(tokens, page, size);
+	}
+
+	private OwnerIndex currentIndex(int ownerId) {
+
+		long version = versions.current(ownerId);
+		OwnerIndex index = owners.get(ownerId);
+
+		if (index != null && index.version() >= version) {
+			return index;
+		}
+
+		OwnerIndex fresh = new OwnerIndex(version);
+		contactRepository.findIndexedContactsByUser(ownerId).forEach(fresh::put);
+		owners.put(ownerId, fresh);
+
+		log.debug("Search index of owner {} reloaded at version {}", ownerId, version);
+
+		return fresh;
+	}
+}
@@ -0,0 +1,61 @@
+package com.contactManager.search;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * The searchable fields of a contact, as read by the index rebuild query.
+ */
+public class IndexedContact {
+
+	private final int contactId;
+	private final int ownerId;
+	private final String name;
+	private final String secondName;
+	private final String work;
+	private final String email;
+	private final String phone;
+
+	public IndexedContact(int contactId, int ownerId, String name, String secondName, String work, String email,
+			String phone) {
+		this.contactId = contactId;
+		this.ownerId = ownerId;
+		this.name = name;
+		this.secondName = secondName;
+		this.work = work;
+		this.email = email;
+		this.phone = phone;
+	}
+
+	public static IndexedContact of(int ownerId, Contact contact) {
+		return new IndexedContact(contact.getContact_id(), ownerId, contact.getName(), contact.getSecondName(),
+				contact.getWork(), contact.getEmail(), contact.getPhone());
+	}
+
+	public int getContactId() {
+		return contactId;
+	}
+
+	public int getOwnerId() {
+		return ownerId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSecondName() {
+		return secondName;
+	}
+
+	public String getWork() {
+		return work;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getPhone() {
+		return phone;
+	}
+}
@@ -0,0 +1,276 @@
+package com.contactManager.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Edge n-gram index over the contacts of a single owner.
+ *
+ * Every token of every searchable field is indexed under each of its prefixes
+ * (up to {@link #MAX_GRAM} characters), so a prefix query is a map lookup
+ * followed by an intersection of sorted posting lists.
+ *
+ * The index also holds the owner's contacts stamp it reflects, see
+ * {@code ContactListVersions}.
+ */
+final class OwnerIndex {
+
+	static final int MAX_GRAM = 15;
+
+	// name, second name, email, work, phone
+	private static final int[] FIELD_WEIGHTS = { 8, 6, 4, 2, 2 };
+
+	private static final int PHONE = 4;
+
+	private final Map<String, PostingList> postings = new HashMap<>();
+
+	private final Map<Integer, Document> documents = new HashMap<>();
+
+	private long version;
+
+	OwnerIndex(long version) {
+		this.version = version;
+	}
+
+	synchronized long version() {
+		return version;
+	}
+
+	/**
+	 * Applies a write that moved the owner's stamp to {@code next}, if it is
+	 * the one directly after this index's. Otherwise a write is missing in
+	 * between and the index is left for a reload.
+	 */
+	synchronized void update(long next, Consumer<OwnerIndex> change) {
+
+		if (version == next - 1) {
+			change.accept(this);
+			version = next;
+		}
+	}
+
+	synchronized void put(IndexedContact contact) {
+
+		remove(contact.getContactId());
+
+		Document document = new Document(contact);
+		documents.put(contact.getContactId(), document);
+
+		for (String gram : document.grams()) {
+			postings.computeIfAbsent(gram, key -> new PostingList()).add(contact.getContactId());
+		}
+	}
+
+	synchronized void remove(int contactId) {
+
+		Document document = documents.remove(contactId);
+
+		if (document == null) {
+			return;
+		}
+
+		for (String gram : document.grams()) {
+
+			PostingList list = postings.get(gram);
+
+			if (list != null) {
+				list.remove(contactId);
+
+				if (list.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	synchronized SearchHits search(List<String> queryTokens, int page, int size) {
+
+		List<PostingList> lists = new ArrayList<>();
+
+		for (String token : queryTokens) {
+
+			PostingList list = postings.get(token.length() > MAX_GRAM ? token.substring(0, MAX_GRAM) : token);
+
+			if (list == null) {
+				return new SearchHits(List.of(), 0);
+			}
+
+			lists.add(list);
+		}
+
+		lists.sort(Comparator.comparingInt(PostingList::size));
+
+		List<ScoredDocument> matches = new ArrayList<>();
+		PostingList smallest = lists.get(0);
+
+		candidates: for (int i = 0; i < smallest.size(); i++) {
+
+			int contactId = smallest.get(i);
+
+			for (int j = 1; j < lists.size(); j++) {
+				if (!lists.get(j).contains(contactId)) {
+					continue candidates;
+				}
+			}
+
+			Document document = documents.get(contactId);
+			int score = document.score(queryTokens);
+
+			if (score > 0) {
+				matches.add(new ScoredDocument(contactId, document.sortName, score));
+			}
+		}
+
+		matches.sort(Comparator.comparingInt(ScoredDocument::getScore).reversed()
+				.thenComparing(ScoredDocument::getSortName).thenComparingInt(ScoredDocument::getContactId));
+
+		int from = Math.min(page * size, matches.size());
+		int to = Math.min(from + size, matches.size());
+
+		List<Integer> ids = new ArrayList<>(to - from);
+
+		for (ScoredDocument match : matches.subList(from, to)) {
+			ids.add(match.getContactId());
+		}
+
+		return new SearchHits(ids, matches.size());
+	}
+
+	/*
+	 * ========================= TOKENIZING =========================
+	 */
+
+	static List<String> tokenize(String value) {
+
+		List<String> tokens = new ArrayList<>();
+
+		if (value == null) {
+			return tokens;
+		}
+
+		StringBuilder current = new StringBuilder();
+
+		for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+
+			if (Character.isLetterOrDigit(c)) {
+				current.append(c);
+			} else if (current.length() > 0) {
+				tokens.add(current.toString());
+				current.setLength(0);
+			}
+		}
+
+		if (current.length() > 0) {
+			tokens.add(current.toString());
+		}
+
+		return tokens;
+	}
+
+	private static String[] phoneTokens(String phone) {
+
+		List<String> tokens = tokenize(phone);
+
+		if (tokens.size() > 1) {
+			// "+1 (555) 123-4567" is also findable as "15551234567"
+			tokens.add(String.join("", tokens));
+		}
+
+		return tokens.toArray(new String[0]);
+	}
+
+	/*
+	 * ========================= DOCUMENTS =========================
+	 */
+
+	private static final class Document {
+
+		private final String[][] fields;
+		private final String sortName;
+
+		Document(IndexedContact contact) {
+			this.fields = new String[][] { tokenize(contact.getName()).toArray(new String[0]),
+					tokenize(contact.getSecondName()).toArray(new String[0]),
+					tokenize(contact.getEmail()).toArray(new String[0]),
+					tokenize(contact.getWork()).toArray(new String[0]), null };
+			this.fields[PHONE] = phoneTokens(contact.getPhone());
+			this.sortName = contact.getName() == null ? "" : contact.getName().toLowerCase(Locale.ROOT);
+		}
+
+		Set<String> grams() {
+
+			Set<String> grams = new HashSet<>();
+
+			for (String[] field : fields) {
+				for (String token : field) {
+					for (int length = 1; length <= Math.min(MAX_GRAM, token.length()); length++) {
+						grams.add(token.substring(0, length));
+					}
+				}
+			}
+
+			return grams;
+		}
+
+		// exact token matches count double; 0 means a query token matched nothing
+		int score(List<String> queryTokens) {
+
+			int score = 0;
+
+			for (String query : queryTokens) {
+
+				int best = 0;
+
+				for (int field = 0; field < fields.length; field++) {
+					for (String token : fields[field]) {
+						if (token.equals(query)) {
+							best = Math.max(best, FIELD_WEIGHTS[field] * 2);
+						} else if (token.startsWith(query)) {
+							best = Math.max(best, FIELD_WEIGHTS[field]);
+						}
+					}
+				}
+
+				if (best == 0) {
+					return 0;
+				}
+
+				score += best;
+			}
+
+			return score;
+		}
+	}
+
+	private static final class ScoredDocument {
+
+		private final int contactId;
+		private final String sortName;
+		private final int score;
+
+		ScoredDocument(int contactId, String sortName, int score) {
+			this.contactId = contactId;
+			this.sortName = sortName;
+			this.score = score;
+		}
+
+		int getContactId() {
+			return contactId;
+		}
+
+		String getSortName() {
+			return sortName;
+		}
+
+		int getScore() {
+			return score;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.contactManager.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable set of contact ids for one index term.
+ */
+final class PostingList {
+
+	private int[] ids = new int[4];
+	private int size;
+
+	void add(int id) {
+
+		int position = Arrays.binarySearch(ids, 0, size, id);
+
+		if (position >= 0) {
+			return;
+		}
+
+		int insertAt = -position - 1;
+
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+
+		System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+		ids[insertAt] = id;
+		size++;
+	}
+
+	void remove(int id) {
+
+		int position = Arrays.binarySearch(ids, 0, size, id);
+
+		if (position < 0) {
+			return;
+		}
+
+		System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+		size--;
+	}
+
+	boolean contains(int id) {
+		return Arrays.binarySearch(ids, 0, size, id) >= 0;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int get(int index) {
+		return ids[index];
+	}
+}
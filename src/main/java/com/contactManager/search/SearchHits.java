@@ -0,0 +1,25 @@
+package com.contactManager.search;
+
+import java.util.List;
+
+/**
+ * One page of ranked contact ids plus the total number of matches.
+ */
+public class SearchHits {
+
+	private final List<Integer> contactIds;
+	private final long total;
+
+	public SearchHits(List<Integer> contactIds, long total) {
+		this.contactIds = contactIds;
+		this.total = total;
+	}
+
+	public List<Integer> getContactIds() {
+		return contactIds;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+}
@@ -0,0 +1,349 @@
+package com.contactManager.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.contactManager.dto.ContactStats;
+import com.contactManager.dto.ContactSuggestion;
+import com.contactManager.dto.ContactSummary;
+import com.contactManager.entities.Contact;
+import com.contactManager.imagestore.ImageStore;
+import com.contactManager.pagecache.ContactListVersions;
+import com.contactManager.repositories.ContactRepository;
+import com.contactManager.repositories.UserRepository;
+import com.contactManager.search.ContactSearchIndex;
+import com.contactManager.search.SearchHits;
+
+/**
+ * Contact reads and writes keyed by owner id.
+ *
+ * Writes never touch {@code User.contacts}, so adding or deleting a contact
+ * costs the same whatever the size of the owner's address book. Every write
+ * bumps the owner's {@link ContactListVersions stamp}, in its transaction
+ * where it has one.
+ */
+@Service
+public class ContactServiceImpl {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactServiceImpl.class);
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ContactStatsService contactStatsService;
+
+	@Autowired
+	private ContactSearchIndex searchIndex;
+
+	@Autowired
+	private ImageStore imageStore;
+
+	@Autowired
+	private ContactListVersions contactListVersions;
+
+	/*
+	 * ========================= READS =========================
+	 */
+
+	/**
+	 * Returns one page of contact summaries ordered by id.
+	 *
+	 * With an {@code afterId} or {@code beforeId} cursor the page is found by
+	 * seeking on {@code contact_id}, so deep pages cost the same as the first
+	 * one. Without a cursor (jumping straight to a page number) it falls back
+	 * to an offset query. Neither variant runs a {@code COUNT(*)}.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<ContactSummary> listContacts(int ownerId, int page, int size, Integer afterId, Integer beforeId) {
+
+		PageRequest firstPage = PageRequest.of(0, size);
+
+		if (afterId != null) {
+			Slice<ContactSummary> slice = contactRepository.findContactSummariesAfter(ownerId, afterId, firstPage);
+			return new SliceImpl<>(slice.getContent(), PageRequest.of(page, size), slice.hasNext());
+		}
+
+		if (beforeId != null) {
+			Slice<ContactSummary> slice = contactRepository.findContactSummariesBefore(ownerId, beforeId, firstPage);
+
+			List<ContactSummary> content = new ArrayList<>(slice.getContent());
+			Collections.reverse(content);
+
+			// we came from the page after this one, so it exists
+			return new SliceImpl<>(content, PageRequest.of(page, size), true);
+		}
+
+		return contactRepository.findContactSummariesByUser(ownerId, PageRequest.of(page, size));
+	}
+
+	public long countContacts(int ownerId) {
+		return contactStatsService.getTotal(ownerId);
+	}
+
+	public ContactStats getStats(int ownerId) {
+		return contactStatsService.getStats(ownerId);
+	}
+
+	/**
+	 * Ranked search through {@link ContactSearchIndex}. While the index is
+	 * still being rebuilt after startup this falls back to a name query.
+	 */
+	@Transactional(readOnly = true)
+	public Page<ContactSummary> searchContacts(int ownerId, String query, int page, int size) {
+
+		PageRequest pageable = PageRequest.of(page, size);
+
+		if (!searchIndex.isReady()) {
+			String pattern = "%" + query.trim().toLowerCase(Locale.ROOT) + "%";
+			return contactRepository.findContactSummariesByName(ownerId, pattern, pageable);
+		}
+
+		SearchHits hits = searchIndex.search(ownerId, query, page, size);
+
+		if (hits.getContactIds().isEmpty()) {
+			return new PageImpl<>(List.of(), pageable, hits.getTotal());
+		}
+
+		Map<Integer, ContactSummary> byId = contactRepository.findOwnedContactSummaries(ownerId, hits.getContactIds())
+				.stream().collect(Collectors.toMap(ContactSummary::getContact_id, Function.identity()));
+
+		// keep the index ranking, skipping anything deleted since it was indexed
+		List<ContactSummary> ranked = hits.getContactIds().stream().map(byId::get)
+				.filter(contact -> contact != null).collect(Collectors.toList());
+
+		return new PageImpl<>(ranked, pageable, hits.getTotal());
+	}
+
+	/**
+	 * Top matches for the typeahead. Only id, name and image are read from
+	 * the database, never whole {@link Contact} rows.
+	 */
+	@Transactional(readOnly = true)
+	public List<ContactSuggestion> suggestContacts(int ownerId, String query, int limit) {
+
+		if (!searchIndex.isReady()) {
+			String prefix = query.trim().toLowerCase(Locale.ROOT).replace("%", "").replace("_", "") + "%";
+			return contactRepository.findSuggestionsByNamePrefix(ownerId, prefix, PageRequest.of(0, limit));
+		}
+
+		SearchHits hits = searchIndex.search(ownerId, query, 0, limit);
+
+		if (hits.getContactIds().isEmpty()) {
+			return List.of();
+		}
+
+		Map<Integer, ContactSuggestion> byId = contactRepository.findSuggestions(ownerId, hits.getContactIds())
+				.stream().collect(Collectors.toMap(ContactSuggestion::getId, Function.identity()));
+
+		return hits.getContactIds().stream().map(byId::get).filter(suggestion -> suggestion != null)
+				.collect(Collectors.toList());
+	}
+
+	/*
+	 * ========================= WRITES =========================
+	 */
+
+	@Transactional
+	public Contact addContact(int ownerId, Contact contact) {
+
+		// reference only, the owner row is not loaded
+		contact.setUser(userRepository.getReferenceById(ownerId));
+
+		Contact saved = contactRepository.save(contact);
+		long version = contactListVersions.bump(ownerId);
+
+		afterCommit(() -> {
+			contactStatsService.contactAdded(ownerId, version, saved);
+			searchIndex.index(ownerId, version, List.of(saved));
+		});
+
+		log.debug("Contact {} added for owner {}", saved.getContact_id(), ownerId);
+
+		return saved;
+	}
+
+	/**
+	 * Copies the form fields of {@code changes} onto the owner's stored
+	 * contact. A {@code null} image keeps the current one.
+	 *
+	 * The contact is read once, scoped by owner, and the flush issues a single
+	 * UPDATE of the changed columns guarded by the version column. If
+	 * {@code changes} was edited from an older version, or another update
+	 * commits first, an {@link ObjectOptimisticLockingFailureException} is
+	 * thrown and nothing is written.
+	 *
+	 * @return the updated contact, empty if the owner has no such contact
+	 */
+	@Transactional
+	public Optional<Contact> updateContact(int ownerId, Contact changes) {
+
+		Optional<Contact> stored = contactRepository.findOwnedContact(changes.getContact_id(), ownerId);
+
+		if (stored.isEmpty()) {
+			return Optional.empty();
+		}
+
+		Contact contact = stored.get();
+
+		if (contact.getVersion() != changes.getVersion()) {
+			throw new ObjectOptimisticLockingFailureException(Contact.class, contact.getContact_id());
+		}
+
+		ContactSummary before = new ContactSummary(contact.getContact_id(), contact.getName(),
+				contact.getSecondName(), contact.getWork(), contact.getEmail(), contact.getPhone(),
+				contact.getImage());
+
+		contact.setName(changes.getName());
+		contact.setSecondName(changes.getSecondName());
+		contact.setWork(changes.getWork());
+		contact.setEmail(changes.getEmail());
+		contact.setPhone(changes.getPhone());
+		contact.setDescription(changes.getDescription());
+
+		if (changes.getImage() != null) {
+			contact.setImage(changes.getImage());
+		}
+
+		long version = contactListVersions.bump(ownerId);
+
+		afterCommit(() -> {
+			contactStatsService.contactUpdated(ownerId, version, before, contact);
+			searchIndex.index(ownerId, version, List.of(contact));
+
+			if (!Objects.equals(before.getImage(), contact.getImage())) {
+				releaseImage(before.getImage());
+			}
+		});
+
+		log.debug("Contact {} updated for owner {}", contact.getContact_id(), ownerId);
+
+		return Optional.of(contact);
+	}
+
+	public boolean deleteContact(int ownerId, int contactId) {
+
+		Optional<ContactSummary> existing = contactRepository.findOwnedContactSummary(contactId, ownerId);
+
+		if (existing.isEmpty()) {
+			return false;
+		}
+
+		boolean deleted = contactRepository.deleteOwnedContact(contactId, ownerId) > 0;
+
+		log.debug("Delete of contact {} for owner {}: {}", contactId, ownerId, deleted ? "done" : "no owned row");
+
+		if (deleted) {
+			// the delete has committed by now, see ContactListVersions on the order
+			long version = contactListVersions.bump(ownerId);
+			afterCommit(() -> {
+				contactStatsService.contactDeleted(ownerId, version, existing.get());
+				searchIndex.remove(ownerId, version, contactId);
+			});
+			releaseImage(existing.get().getImage());
+		}
+
+		return deleted;
+	}
+
+	/**
+	 * Brings the contact stats and search index up to date after a bulk import
+	 * saved {@code contacts} outside of {@link #addContact}.
+	 */
+	public void contactsImported(int ownerId, List<Contact> contacts) {
+
+		long version = contactListVersions.bump(ownerId);
+
+		afterCommit(() -> {
+			contactStatsService.contactsAdded(ownerId, version, contacts);
+			searchIndex.index(ownerId, version, contacts);
+		});
+	}
+
+	/**
+	 * Drops a stored image once no contact refers to it any more. The contact
+	 * table is the reference count, so identical uploads shared by several
+	 * contacts are only deleted with the last of them. An image uploaded
+	 * within the store's grace period is kept and left to {@link #sweepImages}.
+	 */
+	public void releaseImage(String image) {
+
+		if (!imageStore.isStoreKey(image)) {
+			return;
+		}
+
+		long references = contactRepository.countByImage(image);
+
+		if (references == 0) {
+			imageStore.delete(image);
+		} else {
+			log.debug("Image {} still referenced by {} contacts", image, references);
+		}
+	}
+
+	/**
+	 * Deletes the stored images no contact refers to: those released within
+	 * their grace period, and uploads whose contact was never saved.
+	 */
+	@Scheduled(initialDelayString = "${app.image.sweep-interval-ms:3600000}",
+			fixedDelayString = "${app.image.sweep-interval-ms:3600000}")
+	public void sweepImages() {
+
+		List<String> idle = imageStore.idleKeys();
+		int deleted = 0;
+
+		for (String image : idle) {
+			if (contactRepository.countByImage(image) == 0) {
+				imageStore.delete(image);
+				deleted++;
+			}
+		}
+
+		log.info("Swept {} stored images, {} were unreferenced", idle.size(), deleted);
+	}
+
+	/*
+	 * ========================= HELPERS =========================
+	 */
+
+	// runs once the surrounding transaction commits, or straight away without one
+	private void afterCommit(Runnable action) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
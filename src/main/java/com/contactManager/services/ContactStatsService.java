@@ -0,0 +1,373 @@
+package com.contactManager.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.contactManager.dto.ContactStats;
+import com.contactManager.dto.ContactSuggestion;
+import com.contactManager.dto.ContactSummary;
+import com.contactManager.entities.Contact;
+import com.contactManager.pagecache.ContactListVersions;
+import com.contactManager.repositories.ContactRepository;
+
+/**
+ * Per-owner contact aggregates for the dashboard and the pager.
+ *
+ * An owner's figures are loaded with a few aggregate queries on first use and
+ * then kept up to date by {@link ContactServiceImpl} after every write it
+ * commits, so reads never run a {@code COUNT(*)}.
+ *
+ * The figures remember the owner's {@link ContactListVersions stamp} they
+ * were loaded at. A write is only applied when its stamp is the next one;
+ * when the stamp has moved on without them, through another node or a write
+ * that was not applied, the next read reloads the owner. {@link #reconcile()}
+ * still rebuilds every loaded owner on a schedule and logs any drift it
+ * corrects.
+ */
+@Service
+public class ContactStatsService {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactStatsService.class);
+
+	static final int RECENT_SIZE = 5;
+
+	static final int TOP_WORK_SIZE = 5;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private ContactListVersions versions;
+
+	private final Map<Integer, OwnerStats> owners = new ConcurrentHashMap<>();
+
+	public ContactStats getStats(int ownerId) {
+
+		OwnerStats stats = current(ownerId);
+
+		if (stats.needsRecentRefill()) {
+			stats.refillRecent(findRecent(ownerId));
+		}
+
+		return stats.snapshot();
+	}
+
+	public long getTotal(int ownerId) {
+		return current(ownerId).snapshot().getTotal();
+	}
+
+	private OwnerStats current(int ownerId) {
+
+		long version = versions.current(ownerId);
+		OwnerStats stats = owners.get(ownerId);
+
+		if (stats == null || stats.version() < version) {
+			stats = load(ownerId, version);
+			owners.put(ownerId, stats);
+		}
+
+		return stats;
+	}
+
+	/*
+	 * ========================= WRITE HOOKS =========================
+	 */
+
+	// version: the owner's stamp after the write; owners not loaded yet are skipped,
+	// their first read sees the committed rows
+
+	public void contactAdded(int ownerId, long version, Contact contact) {
+
+		OwnerStats stats = owners.get(ownerId);
+
+		if (stats != null) {
+			stats.added(version, new ContactSuggestion(contact.getContact_id(), contact.getName(), contact.getImage()),
+					contact.getWork());
+		}
+	}
+
+	/**
+	 * Bulk form of {@link #contactAdded}, used by imports so the snapshot is
+	 * rebuilt once per batch rather than once per contact.
+	 */
+	public void contactsAdded(int ownerId, long version, List<Contact> contacts) {
+
+		OwnerStats stats = owners.get(ownerId);
+
+		if (stats != null) {
+			stats.addedAll(version, contacts);
+		}
+	}
+
+	public void contactUpdated(int ownerId, long version, ContactSummary before, Contact after) {
+
+		OwnerStats stats = owners.get(ownerId);
+
+		if (stats != null) {
+			stats.updated(version, before, new ContactSuggestion(after.getContact_id(), after.getName(), after.getImage()),
+					after.getWork());
+		}
+	}
+
+	public void contactDeleted(int ownerId, long version, ContactSummary before) {
+
+		OwnerStats stats = owners.get(ownerId);
+
+		if (stats != null) {
+			stats.deleted(version, before);
+		}
+	}
+
+	/*
+	 * ========================= RECONCILIATION =========================
+	 */
+
+	@Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:3600000}",
+			fixedDelayString = "${app.stats.reconcile-interval-ms:3600000}")
+	public void reconcile() {
+
+		long start = System.currentTimeMillis();
+		int drifted = 0;
+
+		for (Integer ownerId : new ArrayList<>(owners.keySet())) {
+			if (rebuild(ownerId)) {
+				drifted++;
+			}
+		}
+
+		log.info("Reconciled contact stats of {} owners in {} ms, {} had drifted", owners.size(),
+				System.currentTimeMillis() - start, drifted);
+	}
+
+	/**
+	 * Reloads one owner's figures from the database.
+	 *
+	 * @return true when the cached figures were off
+	 */
+	public boolean rebuild(int ownerId) {
+
+		OwnerStats fresh = load(ownerId, versions.current(ownerId));
+		OwnerStats previous = owners.put(ownerId, fresh);
+
+		if (previous == null) {
+			return false;
+		}
+
+		ContactStats was = previous.snapshot();
+		ContactStats now = fresh.snapshot();
+
+		if (was.getTotal() != now.getTotal() || was.getWithImage() != now.getWithImage()
+				|| !was.getTopWork().equals(now.getTopWork())) {
+
+			log.warn("Contact stats of owner {} had drifted: total {} → {}, with image {} → {}", ownerId,
+					was.getTotal(), now.getTotal(), was.getWithImage(), now.getWithImage());
+			return true;
+		}
+
+		return false;
+	}
+
+	// version is read before the figures, see ContactListVersions
+	private OwnerStats load(int ownerId, long version) {
+
+		Map<String, Long> byWork = new HashMap<>();
+
+		for (Object[] row : contactRepository.countContactsByWork(ownerId)) {
+			String work = normalizeWork((String) row[0]);
+			if (work != null) {
+				byWork.merge(work, (Long) row[1], Long::sum);
+			}
+		}
+
+		return new OwnerStats(version, contactRepository.countContactsByUser(ownerId),
+				contactRepository.countContactsWithImage(ownerId, Contact.DEFAULT_IMAGE), findRecent(ownerId), byWork);
+	}
+
+	private List<ContactSuggestion> findRecent(int ownerId) {
+		return contactRepository.findRecentSuggestions(ownerId, PageRequest.of(0, RECENT_SIZE));
+	}
+
+	static boolean hasImage(String image) {
+		return image != null && !image.equals(Contact.DEFAULT_IMAGE);
+	}
+
+	// blank values are left out of the work breakdown
+	static String normalizeWork(String work) {
+
+		if (work == null || work.isBlank()) {
+			return null;
+		}
+
+		return work.trim();
+	}
+
+	/**
+	 * Mutable figures of one owner. Every change rebuilds the snapshot the
+	 * readers get, which is cheap next to how often the dashboard is read.
+	 */
+	private static class OwnerStats {
+
+		private long total;
+		private long withImage;
+		private final List<ContactSuggestion> recent;
+		private final Map<String, Long> byWork;
+		private boolean recentIncomplete;
+		private long version;
+
+		private volatile ContactStats snapshot;
+
+		OwnerStats(long version, long total, long withImage, List<ContactSuggestion> recent,
+				Map<String, Long> byWork) {
+			this.version = version;
+			this.total = total;
+			this.withImage = withImage;
+			this.recent = new ArrayList<>(recent);
+			this.byWork = byWork;
+			publish();
+		}
+
+		ContactStats snapshot() {
+			return snapshot;
+		}
+
+		synchronized long version() {
+			return version;
+		}
+
+		// false when a write in between is missing, the figures then wait for a reload
+		private boolean advance(long next) {
+
+			if (version != next - 1) {
+				return false;
+			}
+
+			version = next;
+			return true;
+		}
+
+		synchronized boolean needsRecentRefill() {
+			return recentIncomplete;
+		}
+
+		synchronized void refillRecent(List<ContactSuggestion> latest) {
+			recent.clear();
+			recent.addAll(latest);
+			recentIncomplete = false;
+			publish();
+		}
+
+		synchronized void added(long next, ContactSuggestion contact, String work) {
+
+			if (!advance(next)) {
+				return;
+			}
+
+			add(contact, work);
+			publish();
+		}
+
+		synchronized void addedAll(long next, List<Contact> contacts) {
+
+			if (!advance(next)) {
+				return;
+			}
+
+			for (Contact contact : contacts) {
+				add(new ContactSuggestion(contact.getContact_id(), contact.getName(), contact.getImage()),
+						contact.getWork());
+			}
+
+			publish();
+		}
+
+		private void add(ContactSuggestion contact, String work) {
+
+			total++;
+
+			if (hasImage(contact.getImage())) {
+				withImage++;
+			}
+
+			addWork(work, 1);
+
+			recent.add(0, contact);
+			if (recent.size() > RECENT_SIZE) {
+				recent.remove(recent.size() - 1);
+			}
+		}
+
+		synchronized void updated(long next, ContactSummary before, ContactSuggestion after, String work) {
+
+			if (!advance(next)) {
+				return;
+			}
+
+			withImage += (hasImage(after.getImage()) ? 1 : 0) - (hasImage(before.getImage()) ? 1 : 0);
+
+			addWork(before.getWork(), -1);
+			addWork(work, 1);
+
+			recent.replaceAll(entry -> entry.getId() == after.getId() ? after : entry);
+
+			publish();
+		}
+
+		synchronized void deleted(long next, ContactSummary before) {
+
+			if (!advance(next)) {
+				return;
+			}
+
+			total = Math.max(0, total - 1);
+
+			if (hasImage(before.getImage())) {
+				withImage = Math.max(0, withImage - 1);
+			}
+
+			addWork(before.getWork(), -1);
+
+			// the next older contact is not known here, it is read on the next dashboard view
+			if (recent.removeIf(entry -> entry.getId() == before.getContact_id())) {
+				recentIncomplete = total > recent.size();
+			}
+
+			publish();
+		}
+
+		private void addWork(String work, long delta) {
+
+			String key = normalizeWork(work);
+
+			if (key != null) {
+				byWork.compute(key, (name, count) -> {
+					long next = (count == null ? 0 : count) + delta;
+					return next > 0 ? next : null;
+				});
+			}
+		}
+
+		private void publish() {
+
+			List<Map.Entry<String, Long>> entries = new ArrayList<>(byWork.entrySet());
+			entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+			Map<String, Long> top = new LinkedHashMap<>();
+			entries.stream().limit(TOP_WORK_SIZE).forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+
+			snapshot = new ContactStats(total, withImage, List.copyOf(recent), Collections.unmodifiableMap(top),
+					byWork.size());
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.contactManager.services;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.contactManager.entities.User;
+
+/**
+ * Keeps the {@link User} second-level cache coherent across nodes.
+ *
+ * Writes made on this node already update the local cache through Hibernate.
+ * After a user update or delete commits, a {@link UserChangedEvent} is
+ * published; a broadcaster (JMS, Redis pub/sub, ...) can listen for it and
+ * have the other nodes call {@link #evict(int)}.
+ */
+@Component
+public class UserCacheEvictor implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger log = LoggerFactory.getLogger(UserCacheEvictor.class);
+
+	@Autowired
+	private transient EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private transient ApplicationEventPublisher eventPublisher;
+
+	@PostConstruct
+	public void registerListeners() {
+
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class).getServiceRegistry()
+				.getService(EventListenerRegistry.class);
+
+		registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+		registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+	}
+
+	/**
+	 * Drops a user changed on another node from this node's cache. Hibernate
+	 * has no per-key eviction for natural ids, so the whole email → id region
+	 * is cleared; it is rebuilt by the next lookups.
+	 */
+	public void evict(int userId) {
+
+		org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactoryImpl.class).getCache();
+
+		cache.evictEntityData(User.class, userId);
+		cache.evictNaturalIdData(User.class);
+
+		log.debug("Evicted user {} from the second-level cache", userId);
+	}
+
+	/*
+	 * ========================= HIBERNATE EVENTS =========================
+	 */
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		publish(event.getEntity());
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		publish(event.getEntity());
+	}
+
+	@Override
+	public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+	}
+
+	@Override
+	public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+	}
+
+	@Override
+	public boolean requiresPostCommitHandling(EntityPersister persister) {
+		return persister.getMappedClass() == User.class;
+	}
+
+	// misspelled predecessor, still abstract in Hibernate 5.6
+	@Deprecated
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return requiresPostCommitHandling(persister);
+	}
+
+	private void publish(Object entity) {
+
+		if (entity instanceof User) {
+			eventPublisher.publishEvent(new UserChangedEvent(((User) entity).getId()));
+		}
+	}
+
+	/**
+	 * A user row changed and committed on this node.
+	 */
+	public static class UserChangedEvent {
+
+		private final int userId;
+
+		public UserChangedEvent(int userId) {
+			this.userId = userId;
+		}
+
+		public int getUserId() {
+			return userId;
+		}
+	}
+}
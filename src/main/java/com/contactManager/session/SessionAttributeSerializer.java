@@ -0,0 +1,154 @@
+package com.contactManager.session;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import com.contactManager.Securityconfig.UserPrincipal;
+import com.contactManager.helper.Message;
+
+/**
+ * Writes the session attributes this application sets itself, the flash
+ * {@link Message} and a security context holding a {@link UserPrincipal}, as a
+ * tag byte followed by their fields. Anything else falls back to Java
+ * serialization.
+ *
+ * A logged-in security context takes well under a hundred bytes this way,
+ * against roughly a kilobyte of Java serialization. Authentication details
+ * (remote address, session id) are not kept, nothing reads them back.
+ */
+public class SessionAttributeSerializer implements Serializer<Object>, Deserializer<Object> {
+
+	private static final byte JAVA = 0;
+
+	private static final byte MESSAGE = 1;
+
+	private static final byte SECURITY_CONTEXT = 2;
+
+	private final Serializer<Object> javaSerializer = new DefaultSerializer();
+
+	private final Deserializer<Object> javaDeserializer;
+
+	public SessionAttributeSerializer(ClassLoader classLoader) {
+		this.javaDeserializer = new DefaultDeserializer(classLoader);
+	}
+
+	@Override
+	public void serialize(Object value, OutputStream outputStream) throws IOException {
+
+		DataOutputStream out = new DataOutputStream(outputStream);
+
+		if (value instanceof Message) {
+			Message message = (Message) value;
+			out.writeByte(MESSAGE);
+			writeString(out, message.getContent());
+			writeString(out, message.getType());
+		} else if (isCompactContext(value)) {
+			writeSecurityContext(out, (SecurityContext) value);
+		} else {
+			out.writeByte(JAVA);
+			out.flush();
+			javaSerializer.serialize(value, outputStream);
+		}
+
+		out.flush();
+	}
+
+	@Override
+	public Object deserialize(InputStream inputStream) throws IOException {
+
+		DataInputStream in = new DataInputStream(inputStream);
+		byte tag = in.readByte();
+
+		switch (tag) {
+		case MESSAGE:
+			return new Message(readString(in), readString(in));
+		case SECURITY_CONTEXT:
+			return readSecurityContext(in);
+		case JAVA:
+			return javaDeserializer.deserialize(inputStream);
+		default:
+			throw new IOException("Unknown session attribute tag " + tag);
+		}
+	}
+
+	/*
+	 * ========================= SECURITY CONTEXT =========================
+	 */
+
+	private static boolean isCompactContext(Object value) {
+
+		if (!(value instanceof SecurityContext)) {
+			return false;
+		}
+
+		Authentication authentication = ((SecurityContext) value).getAuthentication();
+
+		return authentication instanceof UsernamePasswordAuthenticationToken && authentication.isAuthenticated()
+				&& authentication.getPrincipal() instanceof UserPrincipal;
+	}
+
+	private static void writeSecurityContext(DataOutputStream out, SecurityContext context) throws IOException {
+
+		Authentication authentication = context.getAuthentication();
+		UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+		out.writeByte(SECURITY_CONTEXT);
+		out.writeInt(principal.getId());
+		writeString(out, principal.getEmail());
+		writeString(out, principal.getRole());
+		writeString(out, principal.getDisplayName());
+
+		out.writeShort(authentication.getAuthorities().size());
+
+		for (GrantedAuthority authority : authentication.getAuthorities()) {
+			writeString(out, authority.getAuthority());
+		}
+	}
+
+	private static SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+
+		UserPrincipal principal = new UserPrincipal(in.readInt(), readString(in), readString(in), readString(in));
+
+		int count = in.readUnsignedShort();
+		List<GrantedAuthority> authorities = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			authorities.add(new SimpleGrantedAuthority(readString(in)));
+		}
+
+		return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+	}
+
+	/*
+	 * ========================= HELPERS =========================
+	 */
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		out.writeBoolean(value != null);
+
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
@@ -0,0 +1,79 @@
+package com.contactManager.session;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.session.SessionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+/**
+ * Session storage in the application database, shared by every node, so a
+ * session no longer ties a user to one node. Active with
+ * {@code spring.session.store-type=jdbc}; with {@code none} the container
+ * keeps sessions in memory as before.
+ *
+ * Pending login OTPs and login rate limits are tables of the same database
+ * ({@code login_otp}, {@code login_bucket}), given the same
+ * {@code app.otp.secret} on every node. The contact search index and stats
+ * are per node, but reload an owner whose contacts changed through another
+ * node (see {@code ContactListVersions}). Still per node, so without sticky
+ * routing:
+ * <ul>
+ * <li>{@code project.image} has to be a directory every node shares;</li>
+ * <li>users cached by Hibernate can be up to 30 minutes stale on the other
+ * nodes.</li>
+ * </ul>
+ *
+ * Spring Session only writes attributes that were set or removed during a
+ * request and deserializes stored ones when they are first read. On top of
+ * that, attributes use {@link SessionAttributeSerializer} and last access
+ * updates go through {@link TouchThrottlingSessionRepository}.
+ *
+ * Listed as an auto-configuration so it runs after Spring Boot has set up the
+ * JDBC session store, which backs off as soon as any other session repository
+ * bean is defined.
+ */
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter(SessionAutoConfiguration.class)
+@ConditionalOnBean(JdbcIndexedSessionRepository.class)
+public class SessionStoreConfiguration implements BeanClassLoaderAware {
+
+	private ClassLoader classLoader;
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	// picked up by name by the JDBC session configuration
+	@Bean
+	public ConversionService springSessionConversionService() {
+
+		SessionAttributeSerializer serializer = new SessionAttributeSerializer(classLoader);
+
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+		conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+
+		return conversionService;
+	}
+
+	@Bean
+	@Primary
+	public TouchThrottlingSessionRepository<?> touchThrottlingSessionRepository(
+			JdbcIndexedSessionRepository sessionRepository,
+			@Value("${app.session.touch-interval-seconds:60}") long touchIntervalSeconds) {
+
+		return new TouchThrottlingSessionRepository<>(sessionRepository, Duration.ofSeconds(touchIntervalSeconds));
+	}
+}
@@ -0,0 +1,127 @@
+package com.contactManager.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Keeps page views that change no attribute from writing to the session store.
+ *
+ * The session filter moves the last access time forward on every request,
+ * which makes the JDBC store update the session row each time. Here the move
+ * is only passed on once it is at least {@code touchInterval} past the stored
+ * time, so a session may expire up to that much earlier than its timeout.
+ */
+public class TouchThrottlingSessionRepository<S extends Session>
+		implements SessionRepository<TouchThrottlingSessionRepository.ThrottledSession<S>> {
+
+	private final SessionRepository<S> delegate;
+
+	private final Duration touchInterval;
+
+	public TouchThrottlingSessionRepository(SessionRepository<S> delegate, Duration touchInterval) {
+		this.delegate = delegate;
+		this.touchInterval = touchInterval;
+	}
+
+	@Override
+	public ThrottledSession<S> createSession() {
+		return new ThrottledSession<>(delegate.createSession(), touchInterval);
+	}
+
+	@Override
+	public void save(ThrottledSession<S> session) {
+		delegate.save(session.delegate);
+	}
+
+	@Override
+	public ThrottledSession<S> findById(String id) {
+
+		S session = delegate.findById(id);
+
+		return session != null ? new ThrottledSession<>(session, touchInterval) : null;
+	}
+
+	@Override
+	public void deleteById(String id) {
+		delegate.deleteById(id);
+	}
+
+	public static final class ThrottledSession<S extends Session> implements Session {
+
+		private final S delegate;
+
+		private final Duration touchInterval;
+
+		ThrottledSession(S delegate, Duration touchInterval) {
+			this.delegate = delegate;
+			this.touchInterval = touchInterval;
+		}
+
+		@Override
+		public void setLastAccessedTime(Instant lastAccessedTime) {
+
+			if (Duration.between(delegate.getLastAccessedTime(), lastAccessedTime).compareTo(touchInterval) >= 0) {
+				delegate.setLastAccessedTime(lastAccessedTime);
+			}
+		}
+
+		@Override
+		public String getId() {
+			return delegate.getId();
+		}
+
+		@Override
+		public String changeSessionId() {
+			return delegate.changeSessionId();
+		}
+
+		@Override
+		public <T> T getAttribute(String attributeName) {
+			return delegate.getAttribute(attributeName);
+		}
+
+		@Override
+		public Set<String> getAttributeNames() {
+			return delegate.getAttributeNames();
+		}
+
+		@Override
+		public void setAttribute(String attributeName, Object attributeValue) {
+			delegate.setAttribute(attributeName, attributeValue);
+		}
+
+		@Override
+		public void removeAttribute(String attributeName) {
+			delegate.removeAttribute(attributeName);
+		}
+
+		@Override
+		public Instant getCreationTime() {
+			return delegate.getCreationTime();
+		}
+
+		@Override
+		public Instant getLastAccessedTime() {
+			return delegate.getLastAccessedTime();
+		}
+
+		@Override
+		public void setMaxInactiveInterval(Duration interval) {
+			delegate.setMaxInactiveInterval(interval);
+		}
+
+		@Override
+		public Duration getMaxInactiveInterval() {
+			return delegate.getMaxInactiveInterval();
+		}
+
+		@Override
+		public boolean isExpired() {
+			return delegate.isExpired();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.contactManager.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.repositories.ContactRepository;
+
+/**
+ * Streams an owner's contacts into an export file.
+ *
+ * Rows come from {@link ContactRepository#streamContactsByUser}, a read-only
+ * cursor fetched in chunks of 500, and each contact is written and detached
+ * before the next one is read. Neither the persistence context nor the output
+ * grows with the size of the address book.
+ */
+@Service
+public class ContactExportService {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactExportService.class);
+
+	// push written rows to the client every so often instead of only at the end
+	private static final int FLUSH_EVERY = 1000;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Writes every contact of {@code ownerId} to {@code out}, which is flushed
+	 * but not closed.
+	 *
+	 * @return the number of contacts written
+	 */
+	@Transactional(readOnly = true)
+	public long export(int ownerId, ExportFormat format, OutputStream out) throws IOException {
+
+		long start = System.currentTimeMillis();
+
+		try (Stream<Contact> contacts = contactRepository.streamContactsByUser(ownerId)) {
+
+			long written = write(contacts, format, out);
+
+			log.info("Exported {} contacts for owner {} as {} in {} ms", written, ownerId, format,
+					System.currentTimeMillis() - start);
+
+			return written;
+		}
+	}
+
+	long write(Stream<Contact> contacts, ExportFormat format, OutputStream out) throws IOException {
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		ContactWriter contactWriter = format.newWriter(writer);
+
+		contactWriter.begin();
+
+		long written = 0;
+
+		for (Contact contact : (Iterable<Contact>) contacts::iterator) {
+
+			contactWriter.write(contact);
+			entityManager.detach(contact);
+
+			if (++written % FLUSH_EVERY == 0) {
+				writer.flush();
+			}
+		}
+
+		contactWriter.finish();
+		writer.flush();
+
+		return written;
+	}
+}
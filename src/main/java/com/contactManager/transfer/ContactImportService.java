@@ -0,0 +1,159 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.entities.User;
+import com.contactManager.repositories.ContactRepository;
+import com.contactManager.repositories.UserRepository;
+import com.contactManager.services.ContactServiceImpl;
+
+/**
+ * Bulk contact import from CSV or vCard.
+ *
+ * The upload is parsed record by record and valid contacts are saved through
+ * {@link ContactRepository#saveAll} in batches of {@value #BATCH_SIZE}, one
+ * transaction per batch. With the pooled {@code contact_seq} ids and
+ * {@code hibernate.jdbc.batch_size} set, each batch goes out as a few JDBC
+ * batch inserts. The persistence context is cleared after every batch, so
+ * memory use does not grow with the size of the file.
+ */
+@Service
+public class ContactImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(ContactImportService.class);
+
+	private static final int BATCH_SIZE = 500;
+
+	private static final int MAX_REPORTED_ERRORS = 100;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ContactServiceImpl contactService;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	// latest import per owner, polled by the progress endpoint
+	private final Map<Integer, ImportReport> reports = new ConcurrentHashMap<>();
+
+	public ContactImportService(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	public ImportReport importContacts(int ownerId, InputStream content, String fileName) throws IOException {
+
+		ImportReport report = new ImportReport(fileName, MAX_REPORTED_ERRORS);
+		ImportReport previous = reports.put(ownerId, report);
+
+		if (previous != null && previous.isRunning()) {
+			reports.put(ownerId, previous);
+			throw new IllegalStateException("An import is already running");
+		}
+
+		log.info("Importing contacts for owner {} from {}", ownerId, fileName);
+
+		try (ContactReader reader = openReader(content, fileName)) {
+
+			List<Contact> batch = new ArrayList<>(BATCH_SIZE);
+			ImportRow row;
+
+			while ((row = reader.next()) != null) {
+
+				report.rowRead(row);
+
+				if (!row.isValid()) {
+					continue;
+				}
+
+				batch.add(row.getContact());
+
+				if (batch.size() == BATCH_SIZE) {
+					saveBatch(ownerId, batch, report);
+					batch = new ArrayList<>(BATCH_SIZE);
+				}
+			}
+
+			if (!batch.isEmpty()) {
+				saveBatch(ownerId, batch, report);
+			}
+
+			report.finish();
+
+			log.info("Imported {} contacts for owner {} ({} rejected) in {} ms", report.getImported(), ownerId,
+					report.getRejected(), report.getElapsedMillis());
+
+			return report;
+
+		} catch (IOException | RuntimeException e) {
+			report.fail(e.getMessage());
+			log.error("Import for owner {} failed after {} contacts", ownerId, report.getImported(), e);
+			throw e;
+		}
+	}
+
+	public Optional<ImportReport> getReport(int ownerId) {
+		return Optional.ofNullable(reports.get(ownerId));
+	}
+
+	private void saveBatch(int ownerId, List<Contact> batch, ImportReport report) {
+
+		transactionTemplate.executeWithoutResult(status -> {
+
+			User owner = userRepository.getReferenceById(ownerId);
+			batch.forEach(contact -> contact.setUser(owner));
+
+			contactRepository.saveAll(batch);
+
+			entityManager.flush();
+			entityManager.clear();
+		});
+
+		contactService.contactsImported(ownerId, batch);
+		report.saved(batch.size());
+
+		log.debug("Import for owner {}: {} contacts saved so far", ownerId, report.getImported());
+	}
+
+	private static ContactReader openReader(InputStream content, String fileName) {
+
+		String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+		InputStreamReader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+
+		if (name.endsWith(".csv")) {
+			return new CsvContactReader(reader);
+		}
+
+		if (name.endsWith(".vcf") || name.endsWith(".vcard")) {
+			return new VCardContactReader(reader);
+		}
+
+		throw new IllegalArgumentException("Unsupported import file, expected .csv or .vcf: " + fileName);
+	}
+}
@@ -0,0 +1,16 @@
+package com.contactManager.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls contacts one record at a time from an import file, so the upload is
+ * never held in memory as a whole.
+ */
+public interface ContactReader extends Closeable {
+
+	/**
+	 * @return the next record, or null at the end of the input
+	 */
+	ImportRow next() throws IOException;
+}
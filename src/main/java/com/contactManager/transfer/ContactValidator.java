@@ -0,0 +1,52 @@
+package com.contactManager.transfer;
+
+import java.util.regex.Pattern;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.helper.ContactSanitizer;
+
+/**
+ * Row checks applied to every imported contact before it is saved.
+ */
+final class ContactValidator {
+
+	private static final int MAX_FIELD_LENGTH = 255;
+
+	private static final int MAX_DESCRIPTION_LENGTH = 5000;
+
+	private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+	private ContactValidator() {
+
+	}
+
+	static ImportRow validate(long line, Contact contact) {
+
+		if (contact.getName() == null) {
+			return ImportRow.error(line, "name is required");
+		}
+
+		if (tooLong(contact.getName()) || tooLong(contact.getSecondName()) || tooLong(contact.getWork())
+				|| tooLong(contact.getEmail()) || tooLong(contact.getPhone())) {
+			return ImportRow.error(line, "a field is longer than " + MAX_FIELD_LENGTH + " characters");
+		}
+
+		if (contact.getEmail() != null && !EMAIL.matcher(contact.getEmail()).matches()) {
+			return ImportRow.error(line, "invalid email '" + contact.getEmail() + "'");
+		}
+
+		ContactSanitizer.sanitizeDescription(contact);
+
+		if (contact.getDescription() != null && contact.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+			return ImportRow.error(line, "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+		}
+
+		contact.setImage(Contact.DEFAULT_IMAGE);
+
+		return ImportRow.of(line, contact);
+	}
+
+	private static boolean tooLong(String value) {
+		return value != null && value.length() > MAX_FIELD_LENGTH;
+	}
+}
@@ -0,0 +1,20 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * Writes contacts one at a time to an export, the counterpart of
+ * {@link ContactReader}. Nothing is buffered beyond the underlying writer.
+ */
+public interface ContactWriter {
+
+	default void begin() throws IOException {
+	}
+
+	void write(Contact contact) throws IOException;
+
+	default void finish() throws IOException {
+	}
+}
@@ -0,0 +1,152 @@
+package com.contactManager.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * Streaming RFC 4180 reader. The first record is a header naming the columns
+ * ({@code name, secondName, work, email, phone, description}, in any order and
+ * case; {@code second_name} is accepted too). Unknown columns are ignored.
+ */
+public class CsvContactReader implements ContactReader {
+
+	private final Reader reader;
+
+	private final Map<String, Integer> columns = new HashMap<>();
+
+	private long line = 1;
+
+	private boolean headerRead;
+
+	public CsvContactReader(Reader reader) {
+		this.reader = reader.markSupported() ? reader : new BufferedReader(reader);
+	}
+
+	@Override
+	public ImportRow next() throws IOException {
+
+		if (!headerRead) {
+			readHeader();
+		}
+
+		while (true) {
+
+			long recordLine = line;
+			List<String> record = readRecord();
+
+			if (record == null) {
+				return null;
+			}
+
+			if (record.size() == 1 && record.get(0).isBlank()) {
+				continue;
+			}
+
+			Contact contact = new Contact();
+			contact.setName(field(record, "name"));
+			contact.setSecondName(field(record, "secondname"));
+			contact.setWork(field(record, "work"));
+			contact.setEmail(field(record, "email"));
+			contact.setPhone(field(record, "phone"));
+			contact.setDescription(field(record, "description"));
+
+			return ContactValidator.validate(recordLine, contact);
+		}
+	}
+
+	private void readHeader() throws IOException {
+
+		headerRead = true;
+		List<String> header = readRecord();
+
+		if (header == null) {
+			return;
+		}
+
+		for (int i = 0; i < header.size(); i++) {
+			String column = header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace("\uFEFF", "");
+			columns.putIfAbsent(column, i);
+		}
+
+		if (!columns.containsKey("name")) {
+			throw new IllegalArgumentException("CSV header must contain a 'name' column");
+		}
+	}
+
+	private String field(List<String> record, String column) {
+
+		Integer index = columns.get(column);
+
+		if (index == null || index >= record.size()) {
+			return null;
+		}
+
+		String value = record.get(index).trim();
+
+		return value.isEmpty() ? null : value;
+	}
+
+	// one record, which may span several lines when a quoted field holds line breaks
+	private List<String> readRecord() throws IOException {
+
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int c = reader.read();
+
+		if (c == -1) {
+			return null;
+		}
+
+		while (c != -1) {
+
+			if (quoted) {
+				if (c == '"') {
+					reader.mark(1);
+					int next = reader.read();
+
+					if (next == '"') {
+						field.append('"');
+					} else {
+						quoted = false;
+						reader.reset();
+					}
+				} else {
+					if (c == '\n') {
+						line++;
+					}
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n') {
+				line++;
+				break;
+			} else if (c != '\r') {
+				field.append((char) c);
+			}
+
+			c = reader.read();
+		}
+
+		fields.add(field.toString());
+
+		return fields;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,67 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * RFC 4180 writer using the same header {@link CsvContactReader} expects, so
+ * an export can be imported again as it is.
+ */
+public class CsvContactWriter implements ContactWriter {
+
+	private static final String HEADER = "name,secondName,work,email,phone,description";
+
+	private final Writer writer;
+
+	public CsvContactWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void begin() throws IOException {
+		writer.write(HEADER);
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void write(Contact contact) throws IOException {
+
+		field(contact.getName());
+		writer.write(',');
+		field(contact.getSecondName());
+		writer.write(',');
+		field(contact.getWork());
+		writer.write(',');
+		field(contact.getEmail());
+		writer.write(',');
+		field(contact.getPhone());
+		writer.write(',');
+		field(contact.getDescription());
+		writer.write("\r\n");
+	}
+
+	private void field(String value) throws IOException {
+
+		if (value == null) {
+			return;
+		}
+
+		boolean quote = false;
+
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+		}
+
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -0,0 +1,61 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Formats offered by {@code /user/export}.
+ */
+public enum ExportFormat {
+
+	CSV("text/csv", "csv"),
+	VCARD("text/vcard", "vcf"),
+	JSON("application/json", "json");
+
+	private final String contentType;
+
+	private final String extension;
+
+	ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	ContactWriter newWriter(Writer writer) throws IOException {
+
+		switch (this) {
+		case VCARD:
+			return new VCardContactWriter(writer);
+		case JSON:
+			return new JsonContactWriter(writer);
+		default:
+			return new CsvContactWriter(writer);
+		}
+	}
+
+	/**
+	 * Accepts the format name or its file extension, e.g. {@code vcard} or
+	 * {@code vcf}.
+	 */
+	public static ExportFormat fromName(String name) {
+
+		String value = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+
+		for (ExportFormat format : values()) {
+			if (format.extension.equals(value) || format.name().toLowerCase(Locale.ROOT).equals(value)) {
+				return format;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown export format: " + name);
+	}
+}
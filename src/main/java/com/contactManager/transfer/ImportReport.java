@@ -0,0 +1,100 @@
+package com.contactManager.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and outcome of one import, readable while the import runs.
+ */
+public class ImportReport {
+
+	public enum Status {
+		RUNNING, DONE, FAILED
+	}
+
+	private final String fileName;
+	private final int maxReportedErrors;
+	private final long startedAt = System.currentTimeMillis();
+
+	private final AtomicLong rowsRead = new AtomicLong();
+	private final AtomicLong imported = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+	private volatile Status status = Status.RUNNING;
+	private volatile long finishedAt;
+	private volatile String failure;
+
+	public ImportReport(String fileName, int maxReportedErrors) {
+		this.fileName = fileName;
+		this.maxReportedErrors = maxReportedErrors;
+	}
+
+	void rowRead(ImportRow row) {
+
+		rowsRead.incrementAndGet();
+
+		if (!row.isValid()) {
+			rejected.incrementAndGet();
+
+			if (errors.size() < maxReportedErrors) {
+				errors.add("Line " + row.getLine() + ": " + row.getError());
+			}
+		}
+	}
+
+	void saved(int count) {
+		imported.addAndGet(count);
+	}
+
+	void finish() {
+		finishedAt = System.currentTimeMillis();
+		status = Status.DONE;
+	}
+
+	void fail(String reason) {
+		finishedAt = System.currentTimeMillis();
+		failure = reason;
+		status = Status.FAILED;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isRunning() {
+		return status == Status.RUNNING;
+	}
+
+	public long getRowsRead() {
+		return rowsRead.get();
+	}
+
+	public long getImported() {
+		return imported.get();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public List<String> getErrors() {
+		synchronized (errors) {
+			return new ArrayList<>(errors);
+		}
+	}
+
+	public String getFailure() {
+		return failure;
+	}
+
+	public long getElapsedMillis() {
+		return (status == Status.RUNNING ? System.currentTimeMillis() : finishedAt) - startedAt;
+	}
+}
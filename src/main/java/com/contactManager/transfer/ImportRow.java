@@ -0,0 +1,44 @@
+package com.contactManager.transfer;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * One parsed record of an import file: either a contact or the reason the
+ * record was rejected.
+ */
+public class ImportRow {
+
+	private final long line;
+	private final Contact contact;
+	private final String error;
+
+	private ImportRow(long line, Contact contact, String error) {
+		this.line = line;
+		this.contact = contact;
+		this.error = error;
+	}
+
+	public static ImportRow of(long line, Contact contact) {
+		return new ImportRow(line, contact, null);
+	}
+
+	public static ImportRow error(long line, String error) {
+		return new ImportRow(line, null, error);
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public Contact getContact() {
+		return contact;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public boolean isValid() {
+		return error == null;
+	}
+}
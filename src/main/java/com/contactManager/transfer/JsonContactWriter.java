@@ -0,0 +1,50 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.contactManager.entities.Contact;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a JSON array of contacts with Jackson's streaming generator. The
+ * fields are written one by one rather than by serializing the entity, which
+ * would pull in the lazy {@code user} association.
+ */
+public class JsonContactWriter implements ContactWriter {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final JsonGenerator generator;
+
+	public JsonContactWriter(Writer writer) throws IOException {
+		// the caller owns the writer and closes it after finish()
+		this.generator = JSON_FACTORY.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	@Override
+	public void begin() throws IOException {
+		generator.writeStartArray();
+	}
+
+	@Override
+	public void write(Contact contact) throws IOException {
+
+		generator.writeStartObject();
+		generator.writeNumberField("id", contact.getContact_id());
+		generator.writeStringField("name", contact.getName());
+		generator.writeStringField("secondName", contact.getSecondName());
+		generator.writeStringField("work", contact.getWork());
+		generator.writeStringField("email", contact.getEmail());
+		generator.writeStringField("phone", contact.getPhone());
+		generator.writeStringField("description", contact.getDescription());
+		generator.writeEndObject();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		generator.writeEndArray();
+		generator.close();
+	}
+}
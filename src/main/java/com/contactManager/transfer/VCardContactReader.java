@@ -0,0 +1,146 @@
+package com.contactManager.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * Streaming vCard (2.1/3.0/4.0) reader, one {@code BEGIN:VCARD ... END:VCARD}
+ * block at a time. Reads N (given name → name, family name → second name), FN
+ * when N has no given name, ORG, the first EMAIL and TEL, and NOTE.
+ */
+public class VCardContactReader implements ContactReader {
+
+	private final BufferedReader reader;
+
+	private long line;
+
+	private String pending;
+
+	public VCardContactReader(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+
+	@Override
+	public ImportRow next() throws IOException {
+
+		String property;
+
+		// skip to the next card
+		do {
+			property = readProperty();
+
+			if (property == null) {
+				return null;
+			}
+		} while (!property.equalsIgnoreCase("BEGIN:VCARD"));
+
+		// readProperty() has already looked one line ahead
+		long cardLine = pending != null ? line - 1 : line;
+		Contact contact = new Contact();
+		String formattedName = null;
+
+		while ((property = readProperty()) != null && !property.equalsIgnoreCase("END:VCARD")) {
+
+			int colon = property.indexOf(':');
+
+			if (colon < 0) {
+				continue;
+			}
+
+			// "TEL;TYPE=cell" → "TEL", "item1.EMAIL" → "EMAIL"
+			String name = property.substring(0, colon).split(";", 2)[0].toUpperCase(Locale.ROOT);
+			name = name.substring(name.lastIndexOf('.') + 1);
+			String value = property.substring(colon + 1);
+
+			switch (name) {
+			case "N":
+				String[] parts = value.split(";", -1);
+				contact.setSecondName(blankToNull(unescape(parts[0])));
+				contact.setName(parts.length > 1 ? blankToNull(unescape(parts[1])) : null);
+				break;
+			case "FN":
+				formattedName = blankToNull(unescape(value));
+				break;
+			case "ORG":
+				contact.setWork(blankToNull(unescape(value.split(";", 2)[0])));
+				break;
+			case "EMAIL":
+				if (contact.getEmail() == null) {
+					contact.setEmail(blankToNull(unescape(value)));
+				}
+				break;
+			case "TEL":
+				if (contact.getPhone() == null) {
+					contact.setPhone(blankToNull(unescape(value)));
+				}
+				break;
+			case "NOTE":
+				contact.setDescription(blankToNull(unescape(value)));
+				break;
+			default:
+				break;
+			}
+		}
+
+		if (contact.getName() == null) {
+			contact.setName(formattedName);
+		}
+
+		return ContactValidator.validate(cardLine, contact);
+	}
+
+	// one logical property, with folded continuation lines joined back
+	private String readProperty() throws IOException {
+
+		String current = pending != null ? pending : nextLine();
+		pending = null;
+
+		if (current == null) {
+			return null;
+		}
+
+		StringBuilder property = new StringBuilder(current);
+		String next;
+
+		while ((next = nextLine()) != null) {
+
+			if (next.startsWith(" ") || next.startsWith("\t")) {
+				property.append(next, 1, next.length());
+			} else {
+				pending = next;
+				break;
+			}
+		}
+
+		return property.toString().trim();
+	}
+
+	private String nextLine() throws IOException {
+
+		String value = reader.readLine();
+
+		if (value != null) {
+			line++;
+		}
+
+		return value;
+	}
+
+	private static String unescape(String value) {
+		return value.replace("\\n", "\n").replace("\\N", "\n").replace("\\,", ",").replace("\\;", ";")
+				.replace("\\\\", "\\").trim();
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isEmpty() ? null : value;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
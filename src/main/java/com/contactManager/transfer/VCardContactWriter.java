@@ -0,0 +1,66 @@
+package com.contactManager.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.contactManager.entities.Contact;
+
+/**
+ * vCard 3.0 writer mapping the same properties {@link VCardContactReader}
+ * reads. Lines are not folded, which every reader we know of accepts.
+ */
+public class VCardContactWriter implements ContactWriter {
+
+	private final Writer writer;
+
+	public VCardContactWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	public void write(Contact contact) throws IOException {
+
+		line("BEGIN:VCARD");
+		line("VERSION:3.0");
+		line("N:" + escape(contact.getSecondName()) + ";" + escape(contact.getName()) + ";;;");
+		line("FN:" + escape(fullName(contact)));
+
+		property("ORG", contact.getWork());
+		property("EMAIL", contact.getEmail());
+		property("TEL", contact.getPhone());
+		property("NOTE", contact.getDescription());
+
+		line("END:VCARD");
+	}
+
+	private static String fullName(Contact contact) {
+
+		if (contact.getSecondName() == null || contact.getSecondName().isBlank()) {
+			return contact.getName();
+		}
+
+		return contact.getName() + " " + contact.getSecondName();
+	}
+
+	private void property(String name, String value) throws IOException {
+
+		if (value != null && !value.isBlank()) {
+			line(name + ":" + escape(value));
+		}
+	}
+
+	private void line(String value) throws IOException {
+		writer.write(value);
+		writer.write("\r\n");
+	}
+
+	private static String escape(String value) {
+
+		if (value == null) {
+			return "";
+		}
+
+		return value.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\r\n", "\\n")
+				.replace("\n", "\\n").replace("\r", "\\n");
+	}
+}
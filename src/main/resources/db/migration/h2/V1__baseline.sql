@@ -0,0 +1,30 @@
+-- H2 counterpart of oracle/V1__baseline.sql, used by tests and benchmarks.
+
+create table users (
+	id integer generated by default as identity,
+	about varchar(500),
+	email varchar(255),
+	enabled boolean not null,
+	image_url varchar(255),
+	name varchar(20),
+	password varchar(255),
+	role varchar(255),
+	primary key (id)
+);
+
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+create table contact (
+	contact_id integer generated by default as identity,
+	description varchar(5000),
+	email varchar(255),
+	image varchar(255),
+	name varchar(255),
+	phone varchar(255),
+	second_name varchar(255),
+	work varchar(255),
+	user_id integer,
+	primary key (contact_id)
+);
+
+alter table contact add constraint FKbxl6anxo14q097g8cd2e51v55 foreign key (user_id) references users;
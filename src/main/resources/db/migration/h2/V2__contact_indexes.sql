@@ -0,0 +1,7 @@
+-- see oracle/V2__contact_indexes.sql
+create index contact_user_id_ix on contact (user_id, contact_id);
+
+-- H2 has no function-based indexes, the plain column keeps the owner scoping
+create index contact_user_name_ix on contact (user_id, name);
+
+create index contact_image_ix on contact (image);
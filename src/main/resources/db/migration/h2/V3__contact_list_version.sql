@@ -0,0 +1,2 @@
+-- see oracle/V3__contact_list_version.sql
+alter table users add contacts_version bigint default 0 not null;
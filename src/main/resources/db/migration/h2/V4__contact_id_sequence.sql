@@ -0,0 +1,5 @@
+-- see oracle/V4__contact_id_sequence.sql
+alter table contact alter column contact_id drop identity;
+
+create sequence contact_seq start with 50 increment by 50;
+alter sequence contact_seq restart with (select coalesce(max(contact_id), 0) + 50 from contact);
@@ -0,0 +1,2 @@
+-- see oracle/V5__contact_version.sql
+alter table contact add column version integer default 0 not null;
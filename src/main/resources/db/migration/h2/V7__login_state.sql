@@ -0,0 +1,21 @@
+-- see oracle/V7__login_state.sql
+create table login_otp (
+	user_id integer not null,
+	nonce varchar(32) not null,
+	code_hash varbinary(32) not null,
+	expires_at bigint not null,
+	failed_attempts integer default 0 not null,
+	constraint login_otp_pk primary key (user_id),
+	constraint login_otp_user_fk foreign key (user_id) references users (id) on delete cascade
+);
+
+create index login_otp_expiry on login_otp (expires_at);
+
+create table login_bucket (
+	bucket_key varchar(300) not null,
+	tokens double precision not null,
+	max_tokens integer not null,
+	tokens_per_ms double precision not null,
+	refilled_at bigint not null,
+	constraint login_bucket_pk primary key (bucket_key)
+);
@@ -0,0 +1,34 @@
+-- The schema as Hibernate (ddl-auto=update) created it before migrations were
+-- introduced, unchanged. Databases that already have it are baselined at this
+-- version instead of running it, see spring.flyway.baseline-on-migrate, so every
+-- later change to the schema goes in a later version.
+
+create table users (
+	id number(10,0) generated as identity,
+	about varchar2(500 char),
+	email varchar2(255 char),
+	enabled number(1,0) not null,
+	image_url varchar2(255 char),
+	name varchar2(20 char),
+	password varchar2(255 char),
+	role varchar2(255 char),
+	primary key (id)
+);
+
+-- also the index behind the login lookup by email
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+create table contact (
+	contact_id number(10,0) generated as identity,
+	description varchar2(5000 char),
+	email varchar2(255 char),
+	image varchar2(255 char),
+	name varchar2(255 char),
+	phone varchar2(255 char),
+	second_name varchar2(255 char),
+	work varchar2(255 char),
+	user_id number(10,0),
+	primary key (contact_id)
+);
+
+alter table contact add constraint FKbxl6anxo14q097g8cd2e51v55 foreign key (user_id) references users;
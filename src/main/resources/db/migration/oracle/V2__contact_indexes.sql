@@ -0,0 +1,9 @@
+-- every contact query is scoped by owner: paging and recent contacts seek on the id,
+-- and the id range also serves the foreign key (Oracle does not index those itself)
+create index contact_user_id_ix on contact (user_id, contact_id);
+
+-- name prefix search and suggestions compare lower(name)
+create index contact_user_name_ix on contact (user_id, lower(name));
+
+-- reference count of stored images when a contact is deleted or its image replaced
+create index contact_image_ix on contact (image);
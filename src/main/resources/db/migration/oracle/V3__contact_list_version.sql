@@ -0,0 +1,3 @@
+-- bumped with every contact write of the owner, drives the ETags and rendered list cache
+-- of the contact pages; not mapped on User, so entity updates never write it back
+alter table users add contacts_version number(19,0) default 0 not null;
@@ -0,0 +1,13 @@
+-- Contact ids come from contact_seq instead of the identity column, so Hibernate can
+-- batch the inserts. Hibernate's pooled optimizer takes each value as the top of a
+-- block of 50 ids, so the first value is max(contact_id) + 50: its block starts right
+-- after the existing contacts.
+alter table contact modify contact_id drop identity;
+
+declare
+	first_value number;
+begin
+	select coalesce(max(contact_id), 0) + 50 into first_value from contact;
+	execute immediate 'create sequence contact_seq start with ' || first_value || ' increment by 50';
+end;
+/
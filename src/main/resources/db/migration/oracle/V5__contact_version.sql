@@ -0,0 +1,2 @@
+-- optimistic locking of contact updates (@Version), existing contacts start at 0
+alter table contact add version number(10,0) default 0 not null;
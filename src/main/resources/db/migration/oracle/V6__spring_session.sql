@@ -0,0 +1,23 @@
+-- Spring Session JDBC (spring.session.store-type=jdbc), its schema-oracle.sql
+create table SPRING_SESSION (
+	PRIMARY_ID CHAR(36) NOT NULL,
+	SESSION_ID CHAR(36) NOT NULL,
+	CREATION_TIME NUMBER(19,0) NOT NULL,
+	LAST_ACCESS_TIME NUMBER(19,0) NOT NULL,
+	MAX_INACTIVE_INTERVAL NUMBER(10,0) NOT NULL,
+	EXPIRY_TIME NUMBER(19,0) NOT NULL,
+	PRINCIPAL_NAME VARCHAR2(100 CHAR),
+	CONSTRAINT SPRING_SESSION_PK PRIMARY KEY (PRIMARY_ID)
+);
+
+create unique index SPRING_SESSION_IX1 on SPRING_SESSION (SESSION_ID);
+create index SPRING_SESSION_IX2 on SPRING_SESSION (EXPIRY_TIME);
+create index SPRING_SESSION_IX3 on SPRING_SESSION (PRINCIPAL_NAME);
+
+create table SPRING_SESSION_ATTRIBUTES (
+	SESSION_PRIMARY_ID CHAR(36) NOT NULL,
+	ATTRIBUTE_NAME VARCHAR2(200 CHAR) NOT NULL,
+	ATTRIBUTE_BYTES BLOB NOT NULL,
+	CONSTRAINT SPRING_SESSION_ATTRIBUTES_PK PRIMARY KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME),
+	CONSTRAINT SPRING_SESSION_ATTRIBUTES_FK FOREIGN KEY (SESSION_PRIMARY_ID) REFERENCES SPRING_SESSION(PRIMARY_ID) ON DELETE CASCADE
+);
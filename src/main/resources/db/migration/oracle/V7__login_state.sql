@@ -0,0 +1,25 @@
+-- login state every node reads and writes, so the second login step and the rate limits
+-- do not depend on which node a request lands on
+
+-- the pending one-time password of a user, as an HMAC under app.otp.secret
+create table login_otp (
+	user_id number(10,0) not null,
+	nonce varchar2(32 char) not null,
+	code_hash raw(32) not null,
+	expires_at number(19,0) not null,
+	failed_attempts number(10,0) default 0 not null,
+	constraint login_otp_pk primary key (user_id),
+	constraint login_otp_user_fk foreign key (user_id) references users (id) on delete cascade
+);
+
+create index login_otp_expiry on login_otp (expires_at);
+
+-- token buckets of LoginRateLimiter, keyed "user:<email>" or "ip:<address>"
+create table login_bucket (
+	bucket_key varchar2(300 char) not null,
+	tokens binary_double not null,
+	max_tokens number(10,0) not null,
+	tokens_per_ms binary_double not null,
+	refilled_at number(19,0) not null,
+	constraint login_bucket_pk primary key (bucket_key)
+);
@@ -27,3 +27,112 @@ function previewImage(event) {
 function toggleTheme() {
     document.body.classList.toggle("dark");
 }
+
+/* ===== SEARCH SUGGESTIONS ===== */
+const SUGGEST_DELAY_MS = 150;
+
+let suggestTimer = null;
+let suggestRequest = null;
+
+function suggestContacts(query) {
+
+    clearTimeout(suggestTimer);
+
+    // a newer keystroke makes any in-flight request useless
+    if (suggestRequest) {
+        suggestRequest.abort();
+        suggestRequest = null;
+    }
+
+    if (query.trim().length === 0) {
+        renderSuggestions([]);
+        return;
+    }
+
+    suggestTimer = setTimeout(() => {
+
+        suggestRequest = new AbortController();
+
+        fetch("/user/search/suggest?q=" + encodeURIComponent(query), {
+            signal: suggestRequest.signal,
+            headers: { "Accept": "application/json" }
+        })
+            .then(response => response.ok ? response.json() : [])
+            .then(renderSuggestions)
+            .catch(error => {
+                if (error.name !== "AbortError") {
+                    console.log(error);
+                }
+            });
+
+    }, SUGGEST_DELAY_MS);
+}
+
+function renderSuggestions(suggestions) {
+
+    const box = document.getElementById("search-suggestions");
+
+    if (!box) {
+        return;
+    }
+
+    box.innerHTML = "";
+
+    suggestions.forEach(contact => {
+
+        const item = document.createElement("a");
+        item.className = "list-group-item list-group-item-action";
+        item.href = "/user/" + contact.id + "/contact";
+
+        const img = document.createElement("img");
+        img.src = "/images/" + contact.image + "?size=thumb";
+        img.style.cssText = "width:30px; height:30px; border-radius:50%; margin-right:10px;";
+
+        const name = document.createElement("span");
+        name.textContent = contact.name;
+
+        item.appendChild(img);
+        item.appendChild(name);
+        box.appendChild(item);
+    });
+}
+
+/* ===== IMPORT ===== */
+function uploadImport(form) {
+
+    const file = form.elements["file"].files[0];
+
+    // streamed as the raw body, the server parses it while it arrives
+    fetch(form.action + "?name=" + encodeURIComponent(file.name), {
+        method: "POST",
+        headers: { "Content-Type": "application/octet-stream", "Accept": "application/json" },
+        body: file
+    })
+        .catch(() => null)
+        .then(() => window.location.assign(form.action));
+
+    form.querySelector("button").disabled = true;
+    watchImportProgress();
+
+    return false;
+}
+
+function watchImportProgress() {
+
+    const progress = document.getElementById("import-progress");
+
+    const poll = () => {
+        fetch("/user/import/progress", { headers: { "Accept": "application/json" } })
+            .then(response => response.status === 200 ? response.json() : null)
+            .then(report => {
+                if (report && report.status === "RUNNING") {
+                    progress.textContent = report.rowsRead + " rows read, " + report.imported + " imported, "
+                        + report.rejected + " rejected...";
+                }
+                setTimeout(poll, 1000);
+            })
+            .catch(() => setTimeout(poll, 1000));
+    };
+
+    setTimeout(poll, 1000);
+}
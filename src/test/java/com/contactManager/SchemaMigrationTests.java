@@ -0,0 +1,88 @@
+package com.contactManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.repositories.ContactRepository;
+import com.contactManager.repositories.UserRepository;
+
+/**
+ * Starts on a database created before migrations were introduced: it is
+ * baselined at V1, the later versions bring it up to date, and the entities
+ * validate against the result.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+
+	private static final String URL = "jdbc:h2:mem:pre-migration;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ContactRepository contactRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@DynamicPropertySource
+	static void preMigrationDatabase(DynamicPropertyRegistry registry) throws SQLException {
+
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-migration-schema.sql"));
+		}
+
+		registry.add("spring.datasource.url", () -> URL);
+	}
+
+	@Test
+	void existingSchemaIsBaselinedThenMigrated() {
+
+		MigrationInfo[] applied = flyway.info().applied();
+
+		assertEquals(MigrationType.BASELINE, applied[0].getType());
+		assertEquals("1", applied[0].getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+		assertEquals(Arrays.asList("2", "3", "4", "5", "6", "7"),
+				Arrays.stream(applied).skip(1).map(migration -> migration.getVersion().getVersion())
+						.collect(Collectors.toList()));
+	}
+
+	@Test
+	void existingContactsAreKeptAndNewIdsFollowThem() {
+
+		assertEquals(0, jdbcTemplate.queryForObject("select version from contact where contact_id = 130", Integer.class));
+		assertEquals(0, jdbcTemplate.queryForObject("select count(*) from SPRING_SESSION", Integer.class));
+
+		Contact contact = new Contact();
+		contact.setName("New");
+		contact.setImage(Contact.DEFAULT_IMAGE);
+		contact.setUser(userRepository.findById(1).orElseThrow());
+
+		assertEquals(131, contactRepository.save(contact).getContact_id());
+		assertEquals(4, contactRepository.count());
+	}
+}
@@ -0,0 +1,83 @@
+package com.contactManager.Securityconfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Two nodes, each with its own OTP service and rate limiter over the one
+ * database: a login started on one can be finished on the other.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginStateCrossNodeTests {
+
+	private static final String SECRET = "shared-test-secret";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int userId;
+
+	@BeforeEach
+	void createUser() {
+
+		String email = "login" + System.nanoTime() + "@example.com";
+
+		jdbcTemplate.update("insert into users (email, enabled, name, password, role) values (?, true, 'Login', 'x', "
+				+ "'ROLE_USER')", email);
+		userId = jdbcTemplate.queryForObject("select id from users where email = ?", Integer.class, email);
+	}
+
+	@Test
+	void otpSentByOneNodeIsCheckedByAnother() {
+
+		OtpService sender = new OtpService(jdbcTemplate, SECRET, 5, 3);
+		OtpService checker = new OtpService(jdbcTemplate, SECRET, 5, 3);
+
+		OtpService.IssuedOtp otp = sender.issue(userId);
+
+		assertEquals(OtpService.Result.VALID, checker.validate(otp.getChallenge(), otp.getCode()));
+		// consumed for both
+		assertEquals(OtpService.Result.EXPIRED, sender.validate(otp.getChallenge(), otp.getCode()));
+	}
+
+	@Test
+	void wrongGuessesOnEveryNodeBurnTheCode() {
+
+		OtpService first = new OtpService(jdbcTemplate, SECRET, 5, 3);
+		OtpService second = new OtpService(jdbcTemplate, SECRET, 5, 3);
+
+		OtpService.IssuedOtp otp = first.issue(userId);
+		String wrong = otp.getCode().equals("100000") ? "100001" : "100000";
+
+		assertEquals(OtpService.Result.INVALID, first.validate(otp.getChallenge(), wrong));
+		assertEquals(OtpService.Result.INVALID, second.validate(otp.getChallenge(), wrong));
+		assertEquals(OtpService.Result.EXPIRED, first.validate(otp.getChallenge(), wrong));
+		assertEquals(OtpService.Result.EXPIRED, second.validate(otp.getChallenge(), otp.getCode()));
+	}
+
+	@Test
+	void rateLimitsAddUpAcrossNodes() {
+
+		LoginRateLimiter first = new LoginRateLimiter(jdbcTemplate, 4, 1, 100, 100, 1000);
+		LoginRateLimiter second = new LoginRateLimiter(jdbcTemplate, 4, 1, 100, 100, 1000);
+
+		String account = "limited" + System.nanoTime() + "@example.com";
+
+		assertTrue(first.tryAcquire(account, "10.0.0.1"));
+		assertTrue(second.tryAcquire(account, "10.0.0.2"));
+		assertTrue(first.tryAcquire(account, "10.0.0.3"));
+		assertTrue(second.tryAcquire(account, "10.0.0.4"));
+
+		assertFalse(first.tryAcquire(account, "10.0.0.5"));
+		assertFalse(second.tryAcquire(account, "10.0.0.6"));
+	}
+}
@@ -0,0 +1,84 @@
+package com.contactManager.imagestore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The last-modified lease of stored images: what {@code delete} keeps and
+ * what the sweep is offered.
+ */
+class FileSystemImageStoreTests {
+
+	@TempDir
+	Path root;
+
+	private FileSystemImageStore store;
+
+	@BeforeEach
+	void createStore() throws IOException {
+		store = new FileSystemImageStore(root.toString());
+	}
+
+	@Test
+	void freshUploadIsKeptAndNotOfferedToTheSweep() throws IOException {
+
+		String key = store("picture");
+
+		store.delete(key);
+
+		assertTrue(store.load(key).isPresent());
+		assertTrue(store.idleKeys().isEmpty());
+	}
+
+	@Test
+	void idleImageIsOfferedToTheSweepAndDeleted() throws IOException {
+
+		String key = store("picture");
+		age(key);
+
+		assertEquals(List.of(key), store.idleKeys());
+
+		store.delete(key);
+
+		assertFalse(store.load(key).isPresent());
+	}
+
+	@Test
+	void reuseRenewsTheLease() throws IOException {
+
+		String key = store("picture");
+		age(key);
+
+		// an identical upload reuses the file between the sweep's listing and its delete
+		List<String> idle = store.idleKeys();
+		assertEquals(key, store("picture"));
+
+		idle.forEach(store::delete);
+
+		assertTrue(store.load(key).isPresent());
+	}
+
+	private String store(String content) throws IOException {
+		return store.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "picture.png");
+	}
+
+	private void age(String key) throws IOException {
+		Path file = root.resolve(key.substring(0, 2)).resolve(key);
+		Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+	}
+}
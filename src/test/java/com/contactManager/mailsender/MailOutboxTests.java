@@ -0,0 +1,142 @@
+package com.contactManager.mailsender;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+class MailOutboxTests {
+
+	private MailOutbox outbox;
+
+	@AfterEach
+	void shutdown() {
+		if (outbox != null) {
+			outbox.shutdown();
+		}
+	}
+
+	@Test
+	void deliversQueuedMail() throws Exception {
+
+		StubMailSender sender = new StubMailSender(0);
+		outbox = new MailOutbox(sender, 10, 2, 3, 10);
+
+		assertTrue(outbox.enqueue(mail("a@example.com")));
+
+		awaitTrue(() -> outbox.getSent() == 1);
+		assertEquals("a@example.com", sender.delivered.get(0).getTo()[0]);
+		assertEquals(0, outbox.getPending());
+	}
+
+	@Test
+	void retriesWithBackoffUntilDelivered() throws Exception {
+
+		StubMailSender sender = new StubMailSender(2);
+		outbox = new MailOutbox(sender, 10, 1, 4, 10);
+
+		assertTrue(outbox.enqueue(mail("b@example.com")));
+
+		awaitTrue(() -> outbox.getSent() == 1);
+		assertEquals(3, sender.attempts.get());
+		assertEquals(2, outbox.getRetried());
+		assertEquals(0, outbox.getFailed());
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() throws Exception {
+
+		StubMailSender sender = new StubMailSender(Integer.MAX_VALUE);
+		outbox = new MailOutbox(sender, 10, 1, 3, 5);
+
+		assertTrue(outbox.enqueue(mail("c@example.com")));
+
+		awaitTrue(() -> outbox.getFailed() == 1);
+		assertEquals(3, sender.attempts.get());
+		assertEquals(0, outbox.getSent());
+		assertEquals(0, outbox.getPending());
+	}
+
+	@Test
+	void rejectsWhenFull() throws Exception {
+
+		StubMailSender sender = new StubMailSender(0);
+		sender.gate = new CountDownLatch(1);
+		outbox = new MailOutbox(sender, 2, 1, 3, 10);
+
+		assertTrue(outbox.enqueue(mail("d1@example.com")));
+		assertTrue(outbox.enqueue(mail("d2@example.com")));
+		assertFalse(outbox.enqueue(mail("d3@example.com")));
+		assertEquals(1, outbox.getRejected());
+
+		sender.gate.countDown();
+
+		awaitTrue(() -> outbox.getSent() == 2);
+	}
+
+	private static SimpleMailMessage mail(String to) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setTo(to);
+		message.setSubject("OTP");
+		message.setText("123456");
+		return message;
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("condition not met within 5 seconds");
+			}
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * Local stand-in for the SMTP server: fails the first {@code failures}
+	 * sends, then records every delivered message.
+	 */
+	private static class StubMailSender extends JavaMailSenderImpl {
+
+		private final int failures;
+		private final AtomicInteger attempts = new AtomicInteger();
+		private final List<SimpleMailMessage> delivered = new CopyOnWriteArrayList<>();
+		private volatile CountDownLatch gate;
+
+		StubMailSender(int failures) {
+			this.failures = failures;
+		}
+
+		@Override
+		public void send(SimpleMailMessage... messages) {
+
+			if (gate != null) {
+				try {
+					gate.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (attempts.incrementAndGet() <= failures) {
+				throw new MailSendException("stub SMTP failure");
+			}
+
+			delivered.addAll(List.of(messages));
+		}
+	}
+}
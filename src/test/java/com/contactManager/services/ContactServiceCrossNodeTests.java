@@ -0,0 +1,75 @@
+package com.contactManager.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.contactManager.entities.Contact;
+import com.contactManager.pagecache.ContactListVersions;
+
+/**
+ * Contacts written through another node, seen here only as rows and a moved
+ * stamp, reach this node's search index and stats on the next read.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactServiceCrossNodeTests {
+
+	@Autowired
+	private ContactServiceImpl contactService;
+
+	@Autowired
+	private ContactListVersions versions;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int ownerId;
+
+	@BeforeEach
+	void createOwner() {
+
+		String email = "owner" + System.nanoTime() + "@example.com";
+
+		jdbcTemplate.update("insert into users (email, enabled, name, password, role) values (?, true, 'Owner', 'x', "
+				+ "'ROLE_USER')", email);
+		ownerId = jdbcTemplate.queryForObject("select id from users where email = ?", Integer.class, email);
+	}
+
+	@Test
+	void writesThroughAnotherNodeAreSeenOnTheNextRead() {
+
+		contactService.addContact(ownerId, contact("Local"));
+
+		assertEquals(1, contactService.getStats(ownerId).getTotal());
+		assertEquals(1, contactService.searchContacts(ownerId, "local", 0, 10).getTotalElements());
+		assertEquals(0, contactService.searchContacts(ownerId, "remote", 0, 10).getTotalElements());
+
+		// what the other node's addContact leaves in the database
+		jdbcTemplate.update("insert into contact (contact_id, name, image, version, user_id) "
+				+ "values (next value for contact_seq, 'Remote', 'contact.png', 0, ?)", ownerId);
+		versions.bump(ownerId);
+
+		assertEquals(2, contactService.getStats(ownerId).getTotal());
+		assertEquals(1, contactService.searchContacts(ownerId, "remote", 0, 10).getTotalElements());
+
+		// local writes are applied in place again once this node has caught up
+		contactService.addContact(ownerId, contact("Another"));
+
+		assertEquals(3, contactService.getStats(ownerId).getTotal());
+		assertEquals(1, contactService.searchContacts(ownerId, "another", 0, 10).getTotalElements());
+	}
+
+	private static Contact contact(String name) {
+
+		Contact contact = new Contact();
+		contact.setName(name);
+		contact.setImage(Contact.DEFAULT_IMAGE);
+		return contact;
+	}
+}
@@ -0,0 +1,138 @@
+package com.contactManager.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Exports through the real repository cursor on H2, watching the persistence
+ * context while the rows stream through it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactExportServiceTests {
+
+	private static final int CONTACTS = 20_000;
+
+	// every contact still managed at the end would be a leak, a few in flight are not
+	private static final int MAX_MANAGED = 10;
+
+	@Autowired
+	private ContactExportService exportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private int ownerId;
+
+	@BeforeEach
+	void createOwner() {
+
+		String email = "export" + System.nanoTime() + "@example.com";
+
+		jdbcTemplate.update("insert into users (email, enabled, name, password, role) values (?, true, 'Exporter', "
+				+ "'x', 'ROLE_USER')", email);
+		ownerId = jdbcTemplate.queryForObject("select id from users where email = ?", Integer.class, email);
+	}
+
+	@ParameterizedTest
+	@EnumSource(ExportFormat.class)
+	void persistenceContextStaysFlatForLargeExports(ExportFormat format) throws Exception {
+
+		List<Object[]> rows = IntStream.rangeClosed(1, CONTACTS)
+				.mapToObj(i -> new Object[] { "Name" + i, "Surname" + i, "Work " + i, "name" + i + "@example.com",
+						"+1 555 " + i, "Description of contact " + i, ownerId })
+				.collect(Collectors.toList());
+
+		jdbcTemplate.batchUpdate("insert into contact (contact_id, name, second_name, work, email, phone, "
+				+ "description, image, version, user_id) values (next value for contact_seq, ?, ?, ?, ?, ?, ?, "
+				+ "'contact.png', 0, ?)", rows);
+
+		ManagedEntityProbe out = new ManagedEntityProbe();
+
+		long written = exportService.export(ownerId, format, out);
+
+		assertEquals(CONTACTS, written);
+		assertTrue(out.count > 50L * CONTACTS, "expected the whole export to be written, got " + out.count);
+		assertTrue(out.samples >= CONTACTS / 1000, "expected a flush every 1000 contacts, got " + out.samples);
+		assertTrue(out.peakManaged <= MAX_MANAGED,
+				out.peakManaged + " entities were managed at once while exporting");
+	}
+
+	@Test
+	void csvExportCanBeImportedAgain() throws Exception {
+
+		jdbcTemplate.update("insert into contact (contact_id, name, work, email, description, image, version, "
+				+ "user_id) values (next value for contact_seq, 'Name7', ?, 'name7@example.com', ?, 'contact.png', 0, ?)",
+				"Acme, \"Inc\"", "line one\nline two", ownerId);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(1, exportService.export(ownerId, ExportFormat.CSV, out));
+
+		try (CsvContactReader reader = new CsvContactReader(
+				new StringReader(new String(out.toByteArray(), StandardCharsets.UTF_8)))) {
+
+			ImportRow row = reader.next();
+
+			assertTrue(row.isValid());
+			assertEquals("Acme, \"Inc\"", row.getContact().getWork());
+			assertEquals("line one\nline two", row.getContact().getDescription());
+			assertEquals("name7@example.com", row.getContact().getEmail());
+		}
+	}
+
+	/**
+	 * Counts the bytes of the export and, on every flush, how many entities
+	 * the export's persistence context holds.
+	 */
+	private class ManagedEntityProbe extends OutputStream {
+
+		private long count;
+
+		private int samples;
+
+		private int peakManaged;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+
+		// called on the export's thread, inside its transaction
+		@Override
+		public void flush() {
+			samples++;
+			peakManaged = Math.max(peakManaged,
+					entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.contactManager.transfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Imports a 100,000 contact vCard file, produced card by card while it is
+ * read, the way a request body arrives.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactImportServiceTests {
+
+	private static final int CONTACTS = 100_000;
+
+	@Autowired
+	private ContactImportService importService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private int ownerId;
+
+	@BeforeEach
+	void createOwner() {
+
+		String email = "import" + System.nanoTime() + "@example.com";
+
+		jdbcTemplate.update("insert into users (email, enabled, name, password, role) values (?, true, 'Importer', "
+				+ "'x', 'ROLE_USER')", email);
+		ownerId = jdbcTemplate.queryForObject("select id from users where email = ?", Integer.class, email);
+	}
+
+	@Test
+	void importsOneHundredThousandContacts() throws Exception {
+
+		VCards cards = new VCards(CONTACTS);
+
+		ImportReport report = importService.importContacts(ownerId, new SequenceInputStream(cards), "contacts.vcf");
+
+		assertEquals(ImportReport.Status.DONE, report.getStatus());
+		assertEquals(CONTACTS, report.getImported());
+		assertEquals(0, report.getRejected());
+		assertEquals(CONTACTS, jdbcTemplate.queryForObject("select count(*) from contact where user_id = ?",
+				Integer.class, ownerId));
+
+		// well past the 10MB multipart limit that used to turn such a file away
+		assertTrue(cards.bytes > 10L * 1024 * 1024, "expected a file over 10MB, got " + cards.bytes);
+	}
+
+	/**
+	 * One card at a time, so the file never exists whole in the test either.
+	 */
+	private static class VCards implements Enumeration<InputStream> {
+
+		private final int count;
+
+		private int next = 1;
+
+		private long bytes;
+
+		VCards(int count) {
+			this.count = count;
+		}
+
+		@Override
+		public boolean hasMoreElements() {
+			return next <= count;
+		}
+
+		@Override
+		public InputStream nextElement() {
+
+			int i = next++;
+			byte[] card = ("BEGIN:VCARD\r\nVERSION:3.0\r\nN:Surname" + i + ";Name" + i + ";;;\r\nFN:Name" + i
+					+ " Surname" + i + "\r\nORG:Work " + i + "\r\nEMAIL;TYPE=INTERNET:name" + i
+					+ "@example.com\r\nTEL;TYPE=CELL:+1 555 " + i + "\r\nNOTE:Imported contact number " + i
+					+ "\r\nEND:VCARD\r\n").getBytes(StandardCharsets.UTF_8);
+
+			bytes += card.length;
+			return new ByteArrayInputStream(card);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+-- A database of the release before migrations: the tables as Hibernate (ddl-auto=update)
+-- created them from the entities of that release, some data, and no Flyway history.
+
+create table users (
+	id integer generated by default as identity,
+	about varchar(500),
+	email varchar(255),
+	enabled boolean not null,
+	image_url varchar(255),
+	name varchar(20),
+	password varchar(255),
+	role varchar(255),
+	primary key (id)
+);
+
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+create table contact (
+	contact_id integer generated by default as identity,
+	description varchar(5000),
+	email varchar(255),
+	image varchar(255),
+	name varchar(255),
+	phone varchar(255),
+	second_name varchar(255),
+	work varchar(255),
+	user_id integer,
+	primary key (contact_id)
+);
+
+alter table contact add constraint FKbxl6anxo14q097g8cd2e51v55 foreign key (user_id) references users;
+
+insert into users (id, email, enabled, name, password, role)
+	values (1, 'legacy@example.com', true, 'Legacy', '{noop}secret', 'ROLE_USER');
+
+-- ids with gaps, as deletes leave them
+insert into contact (contact_id, name, email, image, user_id) values (1, 'First', 'first@example.com', 'contact.png', 1);
+insert into contact (contact_id, name, email, image, user_id) values (2, 'Second', 'second@example.com', 'contact.png', 1);
+insert into contact (contact_id, name, email, image, user_id) values (130, 'Last', 'last@example.com', 'contact.png', 1);